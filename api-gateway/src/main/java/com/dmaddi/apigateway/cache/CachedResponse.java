@@ -0,0 +1,47 @@
+package com.dmaddi.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+
+/**
+ * A complete upstream response held by {@link GatewayResponseCache}: status, headers (ETag
+ * included) and body, plus when it was stored and how long it may be served.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long storedAtMillis, Duration ttl) {
+
+    public String etag() {
+        return headers.getETag();
+    }
+
+    public long ageSeconds(long nowMillis) {
+        return Math.max(0, (nowMillis - storedAtMillis) / 1000);
+    }
+
+    public int weight() {
+        int headerBytes = 0;
+        for(var header: headers.entrySet())
+            for(String value: header.getValue())
+                headerBytes += header.getKey().length() + value.length();
+        return body.length + headerBytes * 2 + 64;
+    }
+
+    /**
+     * True when an If-None-Match header lists this response's ETag (weak comparison) or is "*".
+     */
+    public boolean matches(Iterable<String> ifNoneMatch) {
+        String etag = etag();
+        if(etag == null)
+            return false;
+        for(String tag: ifNoneMatch) {
+            if("*".equals(tag) || opaque(tag).equals(opaque(etag)))
+                return true;
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
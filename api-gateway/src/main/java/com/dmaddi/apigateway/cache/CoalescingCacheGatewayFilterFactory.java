@@ -0,0 +1,223 @@
+package com.dmaddi.apigateway.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Caches GET responses of a route in {@link GatewayResponseCache}, e.g. {@code CoalescingCache=30s}.
+ * <p>
+ * The key is the route, the path, the query parameters (sorted) and the Accept and
+ * Accept-Encoding headers. Only 200 responses are stored. Nothing is stored if upstream says
+ * no-store, no-cache or private, sets a cookie or varies on everything. Upstream max-age or
+ * s-maxage can shorten the route TTL but never extends it. A client's If-None-Match is answered
+ * with 304 from the stored ETag; if upstream sent none, a weak one is derived from the body.
+ * Clients can skip the cache with Cache-Control: no-cache. Concurrent misses for one key share a
+ * single upstream request; a waiter that gives up after gateway.cache.coalesce-timeout goes
+ * upstream itself. Streaming responses (NDJSON, server-sent events) and range requests pass
+ * through untouched.
+ */
+@Component
+public class CoalescingCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<CoalescingCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+    private static final List<MediaType> STREAMING = List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+
+    private final GatewayResponseCache cache;
+
+    @Value("${gateway.cache.max-entry-bytes:1048576}")
+    private int maxEntryBytes;
+
+    @Value("${gateway.cache.coalesce-timeout:5s}")
+    private Duration coalesceTimeout;
+
+    public CoalescingCacheGatewayFilterFactory(GatewayResponseCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // must wrap NettyWriteResponseFilter so the upstream body reaches the capturing decorator
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        if(!cacheable(request))
+            return chain.filter(exchange);
+
+        String key = key(exchange);
+        CachedResponse cached = cache.get(key);
+        if(cached != null)
+            return write(exchange, cached, "HIT");
+
+        Sinks.One<Optional<CachedResponse>> fetch = Sinks.one();
+        Sinks.One<Optional<CachedResponse>> inProgress = cache.join(key, fetch);
+        if(inProgress != null) {
+            return inProgress.asMono()
+                    .timeout(coalesceTimeout)
+                    .onErrorResume(TimeoutException.class, e -> Mono.just(Optional.empty()))
+                    .flatMap(response -> response.isPresent()
+                            ? write(exchange, response.get(), "COALESCED")
+                            : chain.filter(exchange));
+        }
+        return fetch(exchange, chain, config, key, fetch);
+    }
+
+    private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain, Config config, String key,
+                             Sinks.One<Optional<CachedResponse>> fetch) {
+        // always fetch a full body to store; the client's conditional headers are answered here
+        ServerHttpRequest upstreamRequest = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+        CapturingResponseDecorator capturing = new CapturingResponseDecorator(exchange.getResponse());
+        return chain.filter(exchange.mutate().request(upstreamRequest).response(capturing).build())
+                .then(Mono.defer(() -> {
+                    CachedResponse response = toCachedResponse(capturing, config);
+                    boolean store = response.status().value() == HttpStatus.OK.value()
+                            && response.body().length <= maxEntryBytes
+                            && !response.ttl().isZero();
+                    cache.complete(key, fetch, store ? response : null);
+                    return write(exchange, response, store ? "MISS" : "BYPASS");
+                }))
+                .doFinally(signal -> cache.complete(key, fetch, null));
+    }
+
+    private CachedResponse toCachedResponse(CapturingResponseDecorator capturing, Config config) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(capturing.getHeaders());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(CACHE_STATUS_HEADER);
+        byte[] body = capturing.getBody();
+        if(headers.getETag() == null && body.length > 0)
+            headers.setETag("W/\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        HttpStatusCode status = capturing.getStatusCode() == null ? HttpStatus.OK : capturing.getStatusCode();
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body,
+                System.currentTimeMillis(), ttl(headers, config.getTtl()));
+    }
+
+    /**
+     * The route TTL, shortened by upstream max-age/s-maxage; zero if upstream forbids caching.
+     */
+    private static Duration ttl(HttpHeaders headers, Duration routeTtl) {
+        String cacheControl = String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase();
+        if(cacheControl.contains("no-store") || cacheControl.contains("no-cache") || cacheControl.contains("private")
+                || headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getVary().contains("*"))
+            return Duration.ZERO;
+        Matcher maxAge = MAX_AGE.matcher(cacheControl);
+        Duration ttl = routeTtl;
+        while(maxAge.find()) {
+            Duration upstream = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+            if(upstream.compareTo(ttl) < 0)
+                ttl = upstream;
+        }
+        return ttl;
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.clear();
+        headers.putAll(cached.headers());
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        if(!"MISS".equals(cacheStatus) && !"BYPASS".equals(cacheStatus))
+            headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(System.currentTimeMillis())));
+
+        if(cached.status().is2xxSuccessful() && cached.matches(exchange.getRequest().getHeaders().getIfNoneMatch())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean cacheable(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        if(request.getMethod() != HttpMethod.GET || headers.containsKey(HttpHeaders.RANGE))
+            return false;
+        String cacheControl = String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase();
+        if(cacheControl.contains("no-cache") || cacheControl.contains("no-store")
+                || headers.getOrEmpty(HttpHeaders.PRAGMA).contains("no-cache"))
+            return false;
+        for(MediaType accepted: headers.getAccept()) {
+            for(MediaType streaming: STREAMING) {
+                if(streaming.equalsTypeAndSubtype(accepted))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static String key(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        StringBuilder key = new StringBuilder()
+                .append(route == null ? "" : route.getId()).append(' ')
+                .append(request.getPath().value());
+        char separator = '?';
+        for(Map.Entry<String, List<String>> param: new TreeMap<>(request.getQueryParams()).entrySet()) {
+            for(String value: param.getValue()) {
+                key.append(separator).append(param.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        HttpHeaders headers = request.getHeaders();
+        return key.append(" accept=").append(headers.getFirst(HttpHeaders.ACCEPT))
+                .append(" encoding=").append(headers.getFirst(HttpHeaders.ACCEPT_ENCODING))
+                .toString();
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.dmaddi.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Responses shared by every route using the CoalescingCache filter. Entries are bounded by total
+ * size (gateway.cache.max-weight-bytes, W-TinyLFU eviction) and each one expires after its own
+ * TTL. Misses in progress are tracked per key so concurrent requests for the same key wait for
+ * one upstream call instead of each making their own. Hit rates and evictions are published as
+ * the gatewayResponses cache metrics.
+ */
+@Component
+public class GatewayResponseCache implements MeterBinder {
+
+    private final Cache<String, CachedResponse> responses;
+    private final ConcurrentMap<String, Sinks.One<Optional<CachedResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    public GatewayResponseCache(@Value("${gateway.cache.max-weight-bytes:67108864}") long maxWeightBytes) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "gatewayResponses");
+        Gauge.builder("gateway.cache.in_flight", inFlight, ConcurrentMap::size)
+                .description("Cache misses currently being fetched upstream")
+                .register(registry);
+    }
+
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Registers the caller as the one fetching key. Returns null if it now owns the fetch, or the
+     * sink of the fetch already in progress, which emits the response once it is known (empty if
+     * it turned out not to be cacheable).
+     */
+    public Sinks.One<Optional<CachedResponse>> join(String key, Sinks.One<Optional<CachedResponse>> fetch) {
+        return inFlight.putIfAbsent(key, fetch);
+    }
+
+    /**
+     * Ends a fetch started with {@link #join}: stores the response (if any) before releasing the
+     * waiters, so a request arriving in between finds it in the cache.
+     */
+    public void complete(String key, Sinks.One<Optional<CachedResponse>> fetch, CachedResponse response) {
+        if(response != null)
+            responses.put(key, response);
+        inFlight.remove(key, fetch);
+        fetch.tryEmitValue(Optional.ofNullable(response));
+    }
+
+    public long size() {
+        return responses.estimatedSize();
+    }
+}
@@ -0,0 +1,137 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load per route with an {@link AdaptiveConcurrencyLimit}: once a backend's latency shows
+ * it is saturated, requests over the limit get 503 with Retry-After immediately. Runs after the
+ * route filters (so rate-limited and cached requests never count) and just before the load
+ * balancer, timing each request until its response headers are committed, so a long body does
+ * not count as latency. Streams (text/event-stream, application/x-ndjson) are left out: a
+ * request asking for one is never limited, and a streamed response frees its slot unsampled.
+ * Each route's limit, in-flight count and rejections are published as gateway.concurrency.* metrics.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered, MeterBinder {
+
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    @Value("${gateway.concurrency.initial-limit:50}")
+    private int initialLimit;
+
+    @Value("${gateway.concurrency.min-limit:8}")
+    private int minLimit;
+
+    @Value("${gateway.concurrency.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${gateway.concurrency.smoothing:0.2}")
+    private double smoothing;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if(route == null || exchange.getRequest().getHeaders().getAccept().stream().anyMatch(this::isStream))
+            return chain.filter(exchange);
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(route.getId(), this::newLimit);
+        if(!limit.tryAcquire()) {
+            if(meterRegistry != null)
+                meterRegistry.counter("gateway.concurrency.rejected", "route", route.getId()).increment();
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        exchange.getResponse().beforeCommit(() -> {
+            release(exchange.getResponse(), limit, released, start);
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> release(exchange.getResponse(), limit, released, start))
+                .doOnError(e -> {
+                    if(released.compareAndSet(false, true))
+                        limit.onFailure();
+                })
+                .doOnCancel(() -> {
+                    if(released.compareAndSet(false, true))
+                        limit.onIgnore();
+                });
+    }
+
+    /** Completes the request on its limit once, when its headers are committed or the exchange ends. */
+    private void release(ServerHttpResponse response, AdaptiveConcurrencyLimit limit, AtomicBoolean released, long start) {
+        if(!released.compareAndSet(false, true))
+            return;
+        HttpStatusCode status = response.getStatusCode();
+        if(status != null && status.is5xxServerError())
+            limit.onFailure();
+        else if(isStream(response.getHeaders().getContentType()))
+            limit.onIgnore();
+        else
+            limit.onSuccess(System.nanoTime() - start);
+    }
+
+    private boolean isStream(MediaType mediaType) {
+        return mediaType != null && mediaType.isConcrete()
+                && (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(mediaType)
+                || MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType));
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        limits.forEach((routeId, limit) -> register(registry, routeId, limit));
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String routeId) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, smoothing);
+        MeterRegistry registry = meterRegistry;
+        if(registry != null)
+            register(registry, routeId, limit);
+        return limit;
+    }
+
+    private static void register(MeterRegistry registry, String routeId, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .tag("route", routeId)
+                .register(registry);
+        Gauge.builder("gateway.concurrency.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("route", routeId)
+                .register(registry);
+    }
+
+    public AdaptiveConcurrencyLimit getLimit(String routeId) {
+        return limits.get(routeId);
+    }
+}
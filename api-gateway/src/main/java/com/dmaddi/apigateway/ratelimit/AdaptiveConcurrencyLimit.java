@@ -0,0 +1,82 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one backend that follows its latency (a gradient limiter). A fast-moving
+ * average of response time is compared with a slow-moving one that stands in for the no-load
+ * latency. While they agree the limit grows by about sqrt(limit) per sample; as responses slow
+ * down the limit shrinks in proportion, and failures cut it by a tenth. Requests beyond the limit
+ * are rejected straight away instead of queueing behind a backend that is already saturated.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+    }
+
+    /** Admits a request if fewer than limit are in flight; every admitted request must be completed. */
+    public boolean tryAcquire() {
+        while(true) {
+            int current = inFlight.get();
+            if(current >= (int) limit)
+                return false;
+            if(inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    public void onSuccess(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(rttNanos, inFlightAtCompletion, false);
+    }
+
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        update(0, 0, true);
+    }
+
+    /** Releases a request that was cancelled before its outcome was known. */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtCompletion, boolean failed) {
+        double newLimit;
+        if(failed) {
+            newLimit = limit * 0.9;
+        } else {
+            shortRttNanos = shortRttNanos == 0 ? rttNanos : shortRttNanos * 0.9 + rttNanos * 0.1;
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos * 0.995 + rttNanos * 0.005;
+            // the long average only drifts down slowly; pull it along when latency has dropped for good
+            if(longRttNanos > shortRttNanos * 2)
+                longRttNanos = shortRttNanos * 2;
+            // a backend that is not being kept busy says nothing about a higher limit
+            if(inFlightAtCompletion < limit / 2)
+                return;
+            double gradient = Math.max(0.5, Math.min(1.0, longRttNanos / shortRttNanos));
+            newLimit = limit * gradient + Math.sqrt(limit);
+        }
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
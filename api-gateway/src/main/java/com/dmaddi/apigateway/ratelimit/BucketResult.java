@@ -0,0 +1,18 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Outcome of taking tokens from a bucket: whether the request may go ahead, the tokens left and,
+ * when denied, how long until enough tokens have been refilled.
+ */
+public record BucketResult(boolean allowed, long remaining, Duration retryAfter) {
+
+    public static BucketResult allowed(long remaining) {
+        return new BucketResult(true, remaining, Duration.ZERO);
+    }
+
+    public static BucketResult denied(long remaining, Duration retryAfter) {
+        return new BucketResult(false, remaining, retryAfter);
+    }
+}
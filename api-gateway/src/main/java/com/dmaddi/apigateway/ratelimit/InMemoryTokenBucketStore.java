@@ -0,0 +1,60 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Buckets in this gateway's memory. Each bucket is an immutable (tokens, refilled-at) pair behind
+ * an AtomicReference and is updated with compare-and-set, so concurrent requests never block each
+ * other. Buckets idle for longer than idleExpiry are dropped (a dropped bucket comes back full),
+ * and at most maxBuckets are kept.
+ */
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private final Cache<String, AtomicReference<Bucket>> buckets;
+    private final LongSupplier nanoTime;
+
+    public InMemoryTokenBucketStore(Duration idleExpiry, long maxBuckets) {
+        this(idleExpiry, maxBuckets, System::nanoTime);
+    }
+
+    InMemoryTokenBucketStore(Duration idleExpiry, long maxBuckets, LongSupplier nanoTime) {
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleExpiry)
+                .maximumSize(maxBuckets)
+                .build();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public Mono<BucketResult> tryConsume(String key, int replenishRate, int burstCapacity, int tokens) {
+        return Mono.just(consume(key, replenishRate, burstCapacity, tokens));
+    }
+
+    BucketResult consume(String key, int replenishRate, int burstCapacity, int tokens) {
+        AtomicReference<Bucket> ref = buckets.get(key, k -> new AtomicReference<>(new Bucket(burstCapacity, nanoTime.getAsLong())));
+        while(true) {
+            Bucket current = ref.get();
+            long now = nanoTime.getAsLong();
+            double elapsedSeconds = Math.max(0, now - current.refilledAtNanos()) / (double) TimeUnit.SECONDS.toNanos(1);
+            double available = Math.min(burstCapacity, current.tokens() + elapsedSeconds * replenishRate);
+            if(available < tokens) {
+                long waitNanos = (long) Math.ceil((tokens - available) / replenishRate * TimeUnit.SECONDS.toNanos(1));
+                return BucketResult.denied((long) available, Duration.ofNanos(waitNanos));
+            }
+            // tokens < 0 is a refund, which must not overfill the bucket
+            double left = Math.min(burstCapacity, available - tokens);
+            if(ref.compareAndSet(current, new Bucket(left, now)))
+                return BucketResult.allowed((long) left);
+        }
+    }
+
+    private record Bucket(double tokens, long refilledAtNanos) {
+    }
+}
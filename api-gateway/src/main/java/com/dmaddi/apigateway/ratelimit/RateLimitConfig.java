@@ -0,0 +1,55 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+    public TokenBucketStore inMemoryTokenBucketStore(
+            @Value("${gateway.rate-limit.idle-expiry:10m}") Duration idleExpiry,
+            @Value("${gateway.rate-limit.max-buckets:1000000}") long maxBuckets) {
+        return new InMemoryTokenBucketStore(idleExpiry, maxBuckets);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "redis")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TokenBucketStore redisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate) {
+        RedisScript<List<Long>> script = (RedisScript) RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+        return new RedisTokenBucketStore(redisTemplate, script, "gateway.rate-limit.");
+    }
+
+    /**
+     * Identifies the client a request is charged to: the authenticated principal, else the remote
+     * address. X-Forwarded-For is only read when gateway.rate-limit.trusted-proxies is set, and
+     * then only the entry appended by the outermost of those proxies, so a client cannot pick its own key.
+     */
+    @Bean
+    public KeyResolver clientKeyResolver(@Value("${gateway.rate-limit.trusted-proxies:0}") int trustedProxies) {
+        RemoteAddressResolver addressResolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() {};
+        return exchange -> exchange.getPrincipal()
+                .map(principal -> "user:" + principal.getName())
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    InetSocketAddress remote = addressResolver.resolve(exchange);
+                    return remote == null ? "anonymous" : "ip:" + remote.getHostString();
+                }));
+    }
+}
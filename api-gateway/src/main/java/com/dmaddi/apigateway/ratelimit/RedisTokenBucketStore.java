@@ -0,0 +1,45 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Buckets shared by every gateway node through Redis. The refill and take happen atomically in
+ * scripts/token_bucket.lua, using the Redis clock so nodes with skewed clocks agree. If Redis is
+ * unreachable requests are allowed: losing the limiter must not take the gateway down with it.
+ */
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisTokenBucketStore.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> script;
+    private final String keyPrefix;
+
+    public RedisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate, RedisScript<List<Long>> script, String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.script = script;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Mono<BucketResult> tryConsume(String key, int replenishRate, int burstCapacity, int tokens) {
+        List<String> keys = List.of(keyPrefix + "{" + key + "}");
+        List<String> args = List.of(Integer.toString(replenishRate), Integer.toString(burstCapacity), Integer.toString(tokens));
+        return redisTemplate.execute(script, keys, args)
+                .next()
+                .map(result -> result.get(0) == 1
+                        ? BucketResult.allowed(result.get(1))
+                        : BucketResult.denied(result.get(1), Duration.ofMillis(result.get(2))))
+                .onErrorResume(e -> {
+                    log.warn("Rate limit store unavailable, allowing request for {}", key, e);
+                    return Mono.just(BucketResult.allowed(-1));
+                });
+    }
+}
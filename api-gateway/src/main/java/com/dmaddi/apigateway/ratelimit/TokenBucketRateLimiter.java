@@ -0,0 +1,121 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket RateLimiter for the RequestRateLimiter filter. Every request takes tokens from the
+ * bucket of its client on its route and, when the route sets routeReplenishRate, from a bucket
+ * shared by all clients of the route. Per-route limits are filter args under
+ * token-bucket-rate-limiter.*; routes without them use gateway.rate-limit.*. A denied request
+ * carries Retry-After, which the filter copies onto its 429 response.
+ */
+@Primary
+@Component
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final TokenBucketStore store;
+    private final Config defaultConfig;
+
+    public TokenBucketRateLimiter(TokenBucketStore store, ConfigurationService configurationService,
+                                  @Value("${gateway.rate-limit.replenish-rate:10}") int replenishRate,
+                                  @Value("${gateway.rate-limit.burst-capacity:20}") int burstCapacity) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = store;
+        this.defaultConfig = new Config();
+        defaultConfig.setReplenishRate(replenishRate);
+        defaultConfig.setBurstCapacity(burstCapacity);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        String clientKey = routeId + ":" + id;
+        Mono<BucketResult> client = store.tryConsume(clientKey,
+                config.getReplenishRate(), config.getBurstCapacity(), config.getRequestedTokens());
+        return client.flatMap(clientResult -> {
+            if(!clientResult.allowed() || config.getRouteReplenishRate() <= 0)
+                return Mono.just(response(clientResult));
+            return store.tryConsume(routeId + ":*", config.getRouteReplenishRate(),
+                            Math.max(config.getRouteBurstCapacity(), config.getRequestedTokens()), config.getRequestedTokens())
+                    .flatMap(routeResult -> {
+                        if(routeResult.allowed())
+                            return Mono.just(response(clientResult));
+                        // the request is not served, so the client keeps its tokens
+                        return store.refund(clientKey, config.getReplenishRate(), config.getBurstCapacity(), config.getRequestedTokens())
+                                .thenReturn(response(routeResult));
+                    });
+        });
+    }
+
+    private static Response response(BucketResult result) {
+        Map<String, String> headers = new HashMap<>();
+        if(result.remaining() >= 0)
+            headers.put(REMAINING_HEADER, Long.toString(result.remaining()));
+        if(!result.allowed()) {
+            long seconds = Math.max(1, (result.retryAfter().toMillis() + 999) / 1000);
+            headers.put(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        }
+        return new Response(result.allowed(), headers);
+    }
+
+    public static class Config {
+
+        private int replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+        private int routeReplenishRate;
+        private int routeBurstCapacity;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+        }
+
+        public int getRouteReplenishRate() {
+            return routeReplenishRate;
+        }
+
+        public void setRouteReplenishRate(int routeReplenishRate) {
+            this.routeReplenishRate = routeReplenishRate;
+        }
+
+        public int getRouteBurstCapacity() {
+            return routeBurstCapacity;
+        }
+
+        public void setRouteBurstCapacity(int routeBurstCapacity) {
+            this.routeBurstCapacity = routeBurstCapacity;
+        }
+    }
+}
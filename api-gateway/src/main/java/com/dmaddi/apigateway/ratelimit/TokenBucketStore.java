@@ -0,0 +1,20 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds the token buckets used by {@link TokenBucketRateLimiter}. A bucket holds at most
+ * burstCapacity tokens and refills at replenishRate tokens per second; a request is allowed if
+ * the bucket still has the tokens it asks for. {@link InMemoryTokenBucketStore} keeps buckets per
+ * gateway node, {@link RedisTokenBucketStore} shares them between nodes
+ * (gateway.rate-limit.store=memory|redis).
+ */
+public interface TokenBucketStore {
+
+    Mono<BucketResult> tryConsume(String key, int replenishRate, int burstCapacity, int tokens);
+
+    /** Gives back tokens taken for a request that was then denied elsewhere, up to burstCapacity. */
+    default Mono<Void> refund(String key, int replenishRate, int burstCapacity, int tokens) {
+        return tryConsume(key, replenishRate, burstCapacity, -tokens).then();
+    }
+}
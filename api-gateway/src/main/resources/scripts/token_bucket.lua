@@ -0,0 +1,30 @@
+-- Token bucket for RedisTokenBucketStore.
+-- KEYS[1] bucket key; ARGV: replenish rate (tokens/s), burst capacity, tokens requested
+-- (negative to refund tokens, which never fill the bucket past its capacity).
+-- Returns {allowed (1/0), tokens left, milliseconds until the request could succeed}.
+local key = KEYS[1]
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', key, 'tokens', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local ts = tonumber(state[2]) or now
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+
+local allowed = 0
+local retry = 0
+if tokens >= requested then
+  tokens = math.min(capacity, tokens - requested)
+  allowed = 1
+else
+  retry = math.ceil((requested - tokens) * 1000 / rate)
+end
+
+redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', now)
+-- a bucket left alone for twice its fill time is full anyway
+redis.call('PEXPIRE', key, math.ceil(capacity * 1000 / rate) * 2)
+return { allowed, math.floor(tokens), retry }
@@ -0,0 +1,140 @@
+package com.dmaddi.apigateway.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class CoalescingCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "[{\"id\":1,\"questionTitle\":\"What is a JVM?\"}]";
+
+    private GatewayFilter filter;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void createFilter() {
+        CoalescingCacheGatewayFilterFactory factory = new CoalescingCacheGatewayFilterFactory(new GatewayResponseCache(1 << 20));
+        ReflectionTestUtils.setField(factory, "maxEntryBytes", 1 << 16);
+        ReflectionTestUtils.setField(factory, "coalesceTimeout", Duration.ofSeconds(5));
+        CoalescingCacheGatewayFilterFactory.Config config = new CoalescingCacheGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofMinutes(1));
+        filter = factory.apply(config);
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("A repeated GET is served from the cache")
+    void testFilter_whenRequestRepeated_servesFromCache() {
+        // Arrange
+        GatewayFilterChain upstream = upstream(headers -> {});
+
+        // Act
+        MockServerWebExchange first = get("/quiz/get/1");
+        filter.filter(first, upstream).block();
+        MockServerWebExchange second = get("/quiz/get/1");
+        filter.filter(second, upstream).block();
+
+        // Assert
+        Assertions.assertEquals(1, upstreamCalls.get(), "Should call upstream once");
+        Assertions.assertEquals("MISS", first.getResponse().getHeaders().getFirst(CoalescingCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        Assertions.assertEquals("HIT", second.getResponse().getHeaders().getFirst(CoalescingCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        Assertions.assertEquals(BODY, second.getResponse().getBodyAsString().block(), "Should replay the upstream body");
+    }
+
+    @Test
+    @DisplayName("Concurrent misses for one key share a single upstream call")
+    void testFilter_whenConcurrentMisses_coalescesUpstreamCalls() {
+        // Arrange
+        GatewayFilterChain upstream = upstream(headers -> {});
+        List<MockServerWebExchange> exchanges = Flux.range(0, 20).map(i -> get("/quiz/get/1")).collectList().block();
+
+        // Act
+        Flux.fromIterable(exchanges).flatMap(exchange -> filter.filter(exchange, upstream)).blockLast();
+
+        // Assert
+        Assertions.assertEquals(1, upstreamCalls.get(), "Should call upstream once");
+        for(MockServerWebExchange exchange: exchanges)
+            Assertions.assertEquals(BODY, exchange.getResponse().getBodyAsString().block(), "Every caller should get the body");
+    }
+
+    @Test
+    @DisplayName("Query parameters are part of the key, in any order")
+    void testFilter_whenQueryDiffers_usesSeparateEntries() {
+        // Arrange
+        GatewayFilterChain upstream = upstream(headers -> {});
+
+        // Act
+        filter.filter(get("/question/category/Java?afterId=10&limit=5"), upstream).block();
+        filter.filter(get("/question/category/Java?limit=5&afterId=10"), upstream).block();
+        filter.filter(get("/question/category/Java?afterId=20&limit=5"), upstream).block();
+
+        // Assert
+        Assertions.assertEquals(2, upstreamCalls.get(), "Should call upstream once per distinct query");
+    }
+
+    @Test
+    @DisplayName("A matching If-None-Match is answered with 304")
+    void testFilter_whenEtagMatches_returnsNotModified() {
+        // Arrange
+        GatewayFilterChain upstream = upstream(headers -> headers.setETag("\"v1\""));
+        filter.filter(get("/quiz/get/1"), upstream).block();
+
+        // Act
+        MockServerWebExchange conditional = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/quiz/get/1").ifNoneMatch("\"v1\""));
+        filter.filter(conditional, upstream).block();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        Assertions.assertEquals(1, upstreamCalls.get(), "Should not call upstream");
+    }
+
+    @Test
+    @DisplayName("Responses marked no-store are not cached")
+    void testFilter_whenUpstreamSaysNoStore_doesNotCache() {
+        // Arrange
+        GatewayFilterChain upstream = upstream(headers -> headers.setCacheControl("no-store"));
+
+        // Act
+        filter.filter(get("/quiz/get/1"), upstream).block();
+        MockServerWebExchange second = get("/quiz/get/1");
+        filter.filter(second, upstream).block();
+
+        // Assert
+        Assertions.assertEquals(2, upstreamCalls.get(), "Should call upstream every time");
+        Assertions.assertEquals(BODY, second.getResponse().getBodyAsString().block());
+    }
+
+    private GatewayFilterChain upstream(Consumer<HttpHeaders> headers) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            headers.accept(exchange.getResponse().getHeaders());
+            return Mono.delay(Duration.ofMillis(50))
+                    .then(exchange.getResponse().writeWith(Mono.fromSupplier(() ->
+                            exchange.getResponse().bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8)))));
+        };
+    }
+
+    private static MockServerWebExchange get(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    }
+}
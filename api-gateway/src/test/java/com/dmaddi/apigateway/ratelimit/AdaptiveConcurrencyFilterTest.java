@@ -0,0 +1,97 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+public class AdaptiveConcurrencyFilterTest {
+
+    private static final Route ROUTE = Route.async().id("quiz").uri("lb://QUIZ-SERVICE").predicate(exchange -> true).build();
+
+    private AdaptiveConcurrencyFilter filter;
+
+    @BeforeEach
+    void createFilter() {
+        filter = new AdaptiveConcurrencyFilter();
+        ReflectionTestUtils.setField(filter, "initialLimit", 2);
+        ReflectionTestUtils.setField(filter, "minLimit", 1);
+        ReflectionTestUtils.setField(filter, "maxLimit", 100);
+        ReflectionTestUtils.setField(filter, "smoothing", 0.2);
+    }
+
+    @Test
+    @DisplayName("Open event-stream watchers never take a slot")
+    void testFilter_whenRequestAcceptsEventStream_isNotLimited() {
+        // Arrange
+        GatewayFilterChain neverEnding = exchange -> Mono.never();
+
+        // Act
+        for(int i = 0; i < 5; i++)
+            filter.filter(exchange(MediaType.TEXT_EVENT_STREAM), neverEnding).subscribe();
+        MockServerWebExchange plain = exchange(MediaType.APPLICATION_JSON);
+        filter.filter(plain, exchange -> exchange.getResponse().setComplete()).block();
+
+        // Assert
+        Assertions.assertNotEquals(HttpStatus.SERVICE_UNAVAILABLE, plain.getResponse().getStatusCode());
+        Assertions.assertEquals(0, filter.getLimit("quiz").getInFlight());
+    }
+
+    @Test
+    @DisplayName("A streamed response frees its slot once its headers are committed")
+    void testFilter_whenResponseStreams_releasesAtCommit() {
+        // Arrange
+        GatewayFilterChain streaming = exchange -> {
+            exchange.getResponse().getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+            return exchange.getResponse().writeWith(Flux.just(DefaultDataBufferFactory.sharedInstance
+                    .wrap("data: pending\n\n".getBytes(StandardCharsets.UTF_8))).concatWith(Flux.never()));
+        };
+
+        // Act
+        Disposable stream = filter.filter(exchange(MediaType.ALL), streaming).subscribe();
+
+        // Assert
+        AdaptiveConcurrencyLimit limit = filter.getLimit("quiz");
+        Assertions.assertEquals(0, limit.getInFlight(), "The still-open stream should not hold a slot");
+        Assertions.assertEquals(2, limit.getLimit(), "The stream's duration should not be sampled as latency");
+        stream.dispose();
+    }
+
+    @Test
+    @DisplayName("Requests over the route's limit get 503 with Retry-After")
+    void testFilter_whenLimitIsReached_rejects() {
+        // Arrange
+        GatewayFilterChain hanging = exchange -> Mono.never();
+        filter.filter(exchange(MediaType.APPLICATION_JSON), hanging).subscribe();
+        filter.filter(exchange(MediaType.APPLICATION_JSON), hanging).subscribe();
+
+        // Act
+        MockServerWebExchange rejected = exchange(MediaType.APPLICATION_JSON);
+        filter.filter(rejected, hanging).block();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        Assertions.assertEquals("1", rejected.getResponse().getHeaders().getFirst("Retry-After"));
+    }
+
+    private static MockServerWebExchange exchange(MediaType accept) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/quiz/attempt/events/1")
+                .accept(accept));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+}
@@ -0,0 +1,103 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    @DisplayName("Requests over the limit are rejected until one completes")
+    void testTryAcquire_whenLimitIsReached_rejects() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1, 100, 0.2);
+        for(int i = 0; i < 3; i++)
+            limit.tryAcquire();
+
+        // Act
+        boolean overLimit = limit.tryAcquire();
+        limit.onIgnore();
+        boolean afterRelease = limit.tryAcquire();
+
+        // Assert
+        Assertions.assertFalse(overLimit, "A fourth request should be rejected at limit 3");
+        Assertions.assertTrue(afterRelease, "A released slot should be reusable");
+        Assertions.assertEquals(3, limit.getInFlight());
+    }
+
+    @Test
+    @DisplayName("The limit grows while a busy backend keeps its latency")
+    void testOnSuccess_whenBusyAndLatencyIsSteady_growsLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 1.0);
+        for(int i = 0; i < 10; i++)
+            limit.tryAcquire();
+
+        // Act
+        limit.onSuccess(FAST);
+
+        // Assert
+        Assertions.assertEquals(13, limit.getLimit(), "Should add about sqrt(10) at the same latency");
+    }
+
+    @Test
+    @DisplayName("The limit does not grow on a backend that is not kept busy")
+    void testOnSuccess_whenUnderused_keepsLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 1.0);
+
+        // Act
+        for(int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.onSuccess(FAST);
+        }
+
+        // Assert
+        Assertions.assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("The limit shrinks when latency rises above the no-load baseline")
+    void testOnSuccess_whenLatencyRises_shrinksLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 1000, 1.0);
+        for(int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.onSuccess(FAST);
+        }
+        for(int i = 0; i < 40; i++)
+            limit.tryAcquire();
+
+        // Act
+        limit.onSuccess(SLOW);
+
+        // Assert
+        Assertions.assertEquals(32, limit.getLimit(), "Should halve (the gradient floor) and add sqrt(50)");
+    }
+
+    @Test
+    @DisplayName("Failures cut the limit, but never below the minimum")
+    void testOnFailure_cutsLimitDownToMinimum() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 8, 100, 1.0);
+
+        // Act
+        limit.tryAcquire();
+        limit.onFailure();
+        int afterOne = limit.getLimit();
+        for(int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.onFailure();
+        }
+
+        // Assert
+        Assertions.assertEquals(18, afterOne, "One failure should cut a tenth");
+        Assertions.assertEquals(8, limit.getLimit());
+        Assertions.assertEquals(0, limit.getInFlight());
+    }
+}
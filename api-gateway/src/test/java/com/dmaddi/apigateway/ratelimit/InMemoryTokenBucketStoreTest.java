@@ -0,0 +1,103 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+public class InMemoryTokenBucketStoreTest {
+
+    private AtomicLong now;
+    private InMemoryTokenBucketStore store;
+
+    @BeforeEach
+    void createStore() {
+        now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        store = new InMemoryTokenBucketStore(Duration.ofMinutes(10), 1000, now::get);
+    }
+
+    @Test
+    @DisplayName("A new bucket allows a burst up to its capacity")
+    void testConsume_whenBucketIsNew_allowsBurstCapacity() {
+        // Act
+        long allowed = IntStream.range(0, 10).filter(i -> store.consume("quiz:alice", 1, 5, 1).allowed()).count();
+
+        // Assert
+        Assertions.assertEquals(5, allowed, "Should allow exactly the burst capacity");
+    }
+
+    @Test
+    @DisplayName("A denied request is told when to retry")
+    void testConsume_whenBucketIsEmpty_returnsRetryAfter() {
+        // Arrange
+        for(int i = 0; i < 5; i++)
+            store.consume("quiz:alice", 2, 5, 1);
+
+        // Act
+        BucketResult result = store.consume("quiz:alice", 2, 5, 1);
+
+        // Assert
+        Assertions.assertFalse(result.allowed());
+        Assertions.assertEquals(Duration.ofMillis(500), result.retryAfter(), "One token refills in half a second at 2/s");
+    }
+
+    @Test
+    @DisplayName("Tokens refill at the replenish rate")
+    void testConsume_afterWaiting_refillsTokens() {
+        // Arrange
+        for(int i = 0; i < 5; i++)
+            store.consume("quiz:alice", 2, 5, 1);
+
+        // Act
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        long allowed = IntStream.range(0, 5).filter(i -> store.consume("quiz:alice", 2, 5, 1).allowed()).count();
+
+        // Assert
+        Assertions.assertEquals(2, allowed, "One second at 2/s should refill two tokens");
+    }
+
+    @Test
+    @DisplayName("Clients have separate buckets")
+    void testConsume_whenOtherClientIsLimited_stillAllows() {
+        // Arrange
+        for(int i = 0; i < 5; i++)
+            store.consume("quiz:alice", 1, 5, 1);
+
+        // Act
+        BucketResult result = store.consume("quiz:bob", 1, 5, 1);
+
+        // Assert
+        Assertions.assertTrue(result.allowed());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests never take more than the capacity")
+    void testConsume_whenConcurrent_neverOverAllows() {
+        // Act
+        long allowed = IntStream.range(0, 10_000).parallel()
+                .filter(i -> store.consume("quiz:*", 1, 100, 1).allowed())
+                .count();
+
+        // Assert
+        Assertions.assertEquals(100, allowed);
+    }
+
+    @Test
+    @DisplayName("A refund gives tokens back without overfilling the bucket")
+    void testRefund_neverExceedsCapacity() {
+        // Arrange
+        store.consume("quiz:alice", 1, 5, 1);
+
+        // Act
+        store.refund("quiz:alice", 1, 5, 3).block();
+        long allowed = IntStream.range(0, 10).filter(i -> store.consume("quiz:alice", 1, 5, 1).allowed()).count();
+
+        // Assert
+        Assertions.assertEquals(5, allowed, "The bucket should be back to its capacity, not above it");
+    }
+}
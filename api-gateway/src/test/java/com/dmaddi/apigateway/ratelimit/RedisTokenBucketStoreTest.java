@@ -0,0 +1,143 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Runs scripts/token_bucket.lua on a real redis-server, started from the binaries in embedded-redis.
+ */
+public class RedisTokenBucketStoreTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveStringRedisTemplate redisTemplate;
+
+    private RedisTokenBucketStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = connectionFactory(port);
+        redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void createStore() {
+        // a fresh prefix per test, so buckets never carry over
+        store = new RedisTokenBucketStore(redisTemplate, script(), "test." + UUID.randomUUID() + ".");
+    }
+
+    @Test
+    @DisplayName("A new bucket allows a burst up to its capacity")
+    void testTryConsume_whenBucketIsNew_allowsBurstCapacity() {
+        // Act
+        long allowed = IntStream.range(0, 10).filter(i -> store.tryConsume("quiz:alice", 1, 5, 1).block().allowed()).count();
+
+        // Assert
+        Assertions.assertEquals(5, allowed, "Should allow exactly the burst capacity");
+    }
+
+    @Test
+    @DisplayName("A denied request is told when to retry")
+    void testTryConsume_whenBucketIsEmpty_returnsRetryAfter() {
+        // Arrange
+        for(int i = 0; i < 5; i++)
+            store.tryConsume("quiz:alice", 2, 5, 1).block();
+
+        // Act
+        BucketResult result = store.tryConsume("quiz:alice", 2, 5, 1).block();
+
+        // Assert
+        Assertions.assertFalse(result.allowed());
+        Assertions.assertEquals(0, result.remaining());
+        Assertions.assertTrue(result.retryAfter().compareTo(Duration.ZERO) > 0
+                        && result.retryAfter().compareTo(Duration.ofMillis(500)) <= 0,
+                "One token refills within half a second at 2/s, was " + result.retryAfter());
+    }
+
+    @Test
+    @DisplayName("Refunded tokens can be spent again")
+    void testRefund_afterConsuming_returnsTokens() {
+        // Arrange
+        for(int i = 0; i < 5; i++)
+            store.tryConsume("quiz:alice", 1, 5, 1).block();
+
+        // Act
+        store.refund("quiz:alice", 1, 5, 2).block();
+        long allowed = IntStream.range(0, 5).filter(i -> store.tryConsume("quiz:alice", 1, 5, 1).block().allowed()).count();
+
+        // Assert
+        Assertions.assertEquals(2, allowed, "Should allow the two refunded tokens");
+    }
+
+    @Test
+    @DisplayName("A refund never fills the bucket past its capacity")
+    void testRefund_whenBucketIsFull_capsAtCapacity() {
+        // Arrange
+        store.refund("quiz:alice", 1, 5, 10).block();
+
+        // Act
+        long allowed = IntStream.range(0, 10).filter(i -> store.tryConsume("quiz:alice", 1, 5, 1).block().allowed()).count();
+
+        // Assert
+        Assertions.assertEquals(5, allowed, "Should still allow only the burst capacity");
+    }
+
+    @Test
+    @DisplayName("Requests are allowed while Redis is unreachable")
+    void testTryConsume_whenRedisIsDown_allows() throws IOException {
+        // Arrange
+        LettuceConnectionFactory unreachable = connectionFactory(freePort());
+        RedisTokenBucketStore downStore = new RedisTokenBucketStore(new ReactiveStringRedisTemplate(unreachable), script(), "test.");
+
+        // Act
+        BucketResult result = downStore.tryConsume("quiz:alice", 1, 5, 1).block();
+        unreachable.destroy();
+
+        // Assert
+        Assertions.assertTrue(result.allowed());
+        Assertions.assertEquals(-1, result.remaining());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisScript<List<Long>> script() {
+        return (RedisScript) RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory("localhost", port);
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    private static int freePort() throws IOException {
+        try(ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.dmaddi.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+
+public class TokenBucketRateLimiterTest {
+
+    private InMemoryTokenBucketStore store;
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void createRateLimiter() {
+        AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        store = new InMemoryTokenBucketStore(Duration.ofMinutes(10), 1000, now::get);
+        rateLimiter = new TokenBucketRateLimiter(store, mock(ConfigurationService.class), 1, 5);
+        TokenBucketRateLimiter.Config config = new TokenBucketRateLimiter.Config();
+        config.setReplenishRate(1);
+        config.setBurstCapacity(5);
+        config.setRouteReplenishRate(1);
+        config.setRouteBurstCapacity(2);
+        rateLimiter.getConfig().put("quiz", config);
+    }
+
+    @Test
+    @DisplayName("A request denied by the route bucket does not spend the client's tokens")
+    void testIsAllowed_whenRouteDenies_refundsClient() {
+        // Arrange
+        rateLimiter.isAllowed("quiz", "ip:10.0.0.1").block();
+        rateLimiter.isAllowed("quiz", "ip:10.0.0.1").block();
+
+        // Act
+        RateLimiter.Response denied = rateLimiter.isAllowed("quiz", "ip:10.0.0.1").block();
+
+        // Assert
+        Assertions.assertFalse(denied.isAllowed(), "The route bucket of 2 should be empty");
+        Assertions.assertEquals(3, store.consume("quiz:ip:10.0.0.1", 1, 5, 0).remaining(),
+                "Only the two served requests should be charged to the client");
+    }
+}
@@ -0,0 +1,102 @@
+package com.dmaddi.benchmarks.codec;
+
+import com.dmaddi.questionservice.model.QuestionWrapper;
+import com.dmaddi.questionservice.model.Response;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding the bodies exchanged between quiz-service and question-service
+ * (question/getQuestions responses, question/getScore requests) as JSON and as Smile
+ * (quiz.question-client.wire-format). The encode benchmarks also report the body size in bytes
+ * as the secondary "bytes" result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<QuestionWrapper>> QUESTIONS = new TypeReference<>() {};
+    private static final TypeReference<List<Response>> RESPONSES = new TypeReference<>() {};
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"10", "50"})
+    public int numQuestions;
+
+    private ObjectMapper objectMapper;
+    private List<QuestionWrapper> questions;
+    private List<Response> responses;
+    private byte[] encodedQuestions;
+    private byte[] encodedResponses;
+
+    /** Size of the last body encoded by the thread; single-threaded runs report it as is. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+    }
+
+    @Setup
+    public void prepare() throws IOException {
+        objectMapper = "smile".equals(format) ? Jackson2ObjectMapperBuilder.smile().build() : Jackson2ObjectMapperBuilder.json().build();
+        questions = new ArrayList<>(numQuestions);
+        responses = new ArrayList<>(numQuestions);
+        for(int id = 1; id <= numQuestions; id++) {
+            questions.add(new QuestionWrapper(id, "Which keyword declares a constant in Java? (" + id + ")",
+                    "const", "final", "static", "immutable"));
+            Response response = new Response();
+            response.setId(id);
+            response.setResponse(id % 2 == 0 ? "final" : "const");
+            responses.add(response);
+        }
+        encodedQuestions = objectMapper.writeValueAsBytes(questions);
+        encodedResponses = objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] encodeQuestions(EncodedSize size) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(questions);
+        size.bytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public List<QuestionWrapper> decodeQuestions() throws IOException {
+        return objectMapper.readValue(encodedQuestions, QUESTIONS);
+    }
+
+    @Benchmark
+    public byte[] encodeResponses(EncodedSize size) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(responses);
+        size.bytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public List<Response> decodeResponses() throws IOException {
+        return objectMapper.readValue(encodedResponses, RESPONSES);
+    }
+}
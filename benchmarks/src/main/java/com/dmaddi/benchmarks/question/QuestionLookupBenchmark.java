@@ -0,0 +1,82 @@
+package com.dmaddi.benchmarks.question;
+
+import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.model.QuestionWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads behind getting and creating a quiz, each next to the approach it replaced:
+ * <ul>
+ *   <li>getQuestionsFromId (chunked IN query mapped to wrappers) against one findById per id;</li>
+ *   <li>getQuestionsForQuiz from the in-memory sampler against ORDER BY RANDOM() in the database.</li>
+ * </ul>
+ * H2 is not Postgres, so only compare the two sides of a pair. Grow the table with -p rows=100000;
+ * every category needs numQuestions rows, so rows must be at least ten times the largest numQuestions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QuestionLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int numQuestions;
+
+    private List<Integer> questionIds;
+    private String category;
+
+    @Setup
+    public void prepare(QuestionServiceState service) {
+        if(service.rows < numQuestions * QuestionServiceState.CATEGORIES.length)
+            throw new IllegalStateException(service.rows + " rows cannot fill a " + numQuestions + " question quiz in every category");
+        questionIds = Arrays.stream(new SplittableRandom(42).ints(1, service.rows + 1).distinct().limit(numQuestions).toArray())
+                .boxed()
+                .toList();
+        category = QuestionServiceState.CATEGORIES[0];
+    }
+
+    @Benchmark
+    public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(QuestionServiceState service) {
+        return service.questionService.getQuestionsFromId(questionIds);
+    }
+
+    @Benchmark
+    public List<QuestionWrapper> findByIdPerQuestion(QuestionServiceState service) {
+        List<QuestionWrapper> wrappers = new ArrayList<>(questionIds.size());
+        for(Integer id: questionIds){
+            Question question = service.questionDao.findById(id).get();
+            wrappers.add(new QuestionWrapper(question.getId(), question.getQuestionTitle(), question.getOption1(),
+                    question.getOption2(), question.getOption3(), question.getOption4()));
+        }
+        return wrappers;
+    }
+
+    @Benchmark
+    public ResponseEntity<List<Integer>> sampleInMemory(QuestionServiceState service) {
+        return service.questionService.getQuestionsForQuiz(category, numQuestions, false);
+    }
+
+    @Benchmark
+    public List<Integer> sampleOrderByRandom(QuestionServiceState service) {
+        return service.questionDao.findRandomQuestionsByCategory(category, numQuestions);
+    }
+}
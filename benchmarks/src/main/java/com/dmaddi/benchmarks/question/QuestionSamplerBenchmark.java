@@ -0,0 +1,66 @@
+package com.dmaddi.benchmarks.question;
+
+import com.dmaddi.questionservice.index.QuestionSampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draws from a QuestionSampler holding {@code rows} questions of a single category, to show the
+ * draw stays flat as the category grows where ORDER BY RANDOM() is linear in it
+ * (QuestionLookupBenchmark.sampleOrderByRandom). No Spring context or database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QuestionSamplerBenchmark {
+
+    private static final String CATEGORY = "java";
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"10", "50"})
+    public int numQuestions;
+
+    private QuestionSampler sampler;
+    private Map<String, Integer> perDifficulty;
+
+    @Setup
+    public void fill() {
+        sampler = new QuestionSampler();
+        for(int id = 1; id <= rows; id++)
+            sampler.add(id, CATEGORY, QuestionServiceState.DIFFICULTIES[id % QuestionServiceState.DIFFICULTIES.length]);
+        perDifficulty = Map.of("Easy", numQuestions / 2, "Hard", numQuestions - numQuestions / 2);
+    }
+
+    @Benchmark
+    public List<Integer> sample() {
+        return sampler.sample(CATEGORY, numQuestions, false);
+    }
+
+    @Benchmark
+    public List<Integer> sampleStratified() {
+        return sampler.sample(CATEGORY, numQuestions, true);
+    }
+
+    @Benchmark
+    public List<Integer> samplePerDifficulty() {
+        return sampler.sample(CATEGORY, perDifficulty);
+    }
+}
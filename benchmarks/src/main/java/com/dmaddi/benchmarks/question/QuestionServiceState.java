@@ -0,0 +1,70 @@
+package com.dmaddi.benchmarks.question;
+
+import com.dmaddi.questionservice.QuestionServiceApplication;
+import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.index.AnswerKeyIndex;
+import com.dmaddi.questionservice.index.QuestionSampler;
+import com.dmaddi.questionservice.service.QuestionService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * question-service booted without a web server against in-memory H2 (see benchmark.properties),
+ * seeded with {@code rows} questions and warmed the way it is after startup. Question i is in
+ * CATEGORIES[i % 10] at DIFFICULTIES[i % 3], and its right answer is option2.
+ */
+@State(Scope.Benchmark)
+public class QuestionServiceState {
+
+    static final String[] CATEGORIES = {"java", "python", "sql", "kotlin", "go", "rust", "scala", "javascript", "c", "haskell"};
+    static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+
+    @Param("10000")
+    public int rows;
+
+    ConfigurableApplicationContext context;
+    QuestionService questionService;
+    QuestionDao questionDao;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(QuestionServiceApplication.class)
+                .run("--spring.config.name=benchmark");
+
+        List<Object[]> questions = new ArrayList<>(rows);
+        for(int id = 1; id <= rows; id++)
+            questions.add(new Object[]{CATEGORIES[id % CATEGORIES.length], DIFFICULTIES[id % DIFFICULTIES.length],
+                    "Question " + id, wrongAnswer(id), rightAnswer(id), "c" + id, "d" + id, rightAnswer(id)});
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO question (category, difficulty_level, question_title, "
+                + "option1, option2, option3, option4, right_answer) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", questions);
+
+        // The startup warm-up saw an empty table; load the seeded rows as it would have.
+        context.getBean(AnswerKeyIndex.class).warm();
+        context.getBean(QuestionSampler.class).warm();
+        questionService = context.getBean(QuestionService.class);
+        questionDao = context.getBean(QuestionDao.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    static String rightAnswer(int id) {
+        return "b" + id;
+    }
+
+    static String wrongAnswer(int id) {
+        return "a" + id;
+    }
+}
@@ -0,0 +1,72 @@
+package com.dmaddi.benchmarks.question;
+
+import com.dmaddi.questionservice.model.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuestionService.getScore and the batched getScores behind question/getScore(s), answered from
+ * the warm answer-key index. Half of the responses are right.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ScoringBenchmark {
+
+    private static final int SUBMISSIONS_PER_BATCH = 100;
+
+    @Param({"10", "50"})
+    public int numQuestions;
+
+    private List<Response> responses;
+    private List<List<Response>> submissions;
+
+    @Setup
+    public void prepare(QuestionServiceState service) {
+        SplittableRandom random = new SplittableRandom(42);
+        responses = responses(random, service.rows, numQuestions);
+        submissions = new ArrayList<>(SUBMISSIONS_PER_BATCH);
+        for(int i = 0; i < SUBMISSIONS_PER_BATCH; i++)
+            submissions.add(responses(random, service.rows, numQuestions));
+    }
+
+    @Benchmark
+    public ResponseEntity<Integer> getScore(QuestionServiceState service) {
+        return service.questionService.getScore(responses);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<Integer>> getScores(QuestionServiceState service) {
+        return service.questionService.getScores(submissions);
+    }
+
+    private static List<Response> responses(SplittableRandom random, int rows, int count) {
+        List<Response> responses = new ArrayList<>(count);
+        int[] ids = random.ints(1, rows + 1).distinct().limit(count).toArray();
+        for(int i = 0; i < ids.length; i++) {
+            Response response = new Response();
+            response.setId(ids[i]);
+            response.setResponse(i % 2 == 0 ? QuestionServiceState.rightAnswer(ids[i]) : QuestionServiceState.wrongAnswer(ids[i]));
+            responses.add(response);
+        }
+        return responses;
+    }
+}
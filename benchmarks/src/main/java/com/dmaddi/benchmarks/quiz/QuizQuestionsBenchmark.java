@@ -0,0 +1,168 @@
+package com.dmaddi.benchmarks.quiz;
+
+import com.dmaddi.quizservice.cache.QuizQuestionCache;
+import com.dmaddi.quizservice.client.QuestionClient;
+import com.dmaddi.quizservice.dao.QuizDao;
+import com.dmaddi.quizservice.feign.QuizInterface;
+import com.dmaddi.quizservice.model.QuestionWrapper;
+import com.dmaddi.quizservice.model.Quiz;
+import com.dmaddi.quizservice.service.QuizService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * QuizService.getQuizQuestions (GET quiz/get/{id}) with the quiz table and the QUESTION-SERVICE
+ * Feign client stubbed in memory, so the numbers are quiz-service's own work:
+ * <ul>
+ *   <li>cacheHit / notModified: the pre-encoded payload, served as 200 or as 304;</li>
+ *   <li>cacheMiss: a quiz seen for the first time, through QuestionClient (time limiter, bulkhead,
+ *       circuit breaker, hedging) and the JSON/gzip/ETag encoding;</li>
+ *   <li>serializePerRequest: encoding the question list on every read, as before the cache.</li>
+ * </ul>
+ * Run with -prof gc to compare allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QuizQuestionsBenchmark {
+
+    private static final int QUIZ_ID = 1;
+
+    @Param({"10", "50"})
+    public int numQuestions;
+
+    @Param({"identity", "gzip"})
+    public String acceptEncoding;
+
+    private QuizService quizService;
+    private QuestionClient questionClient;
+    private ObjectMapper objectMapper;
+    private List<QuestionWrapper> questions;
+    private int[] questionIds;
+    private String etag;
+    // Quizzes not read before; every cacheMiss call takes the next id.
+    private final AtomicInteger nextQuizId = new AtomicInteger(QUIZ_ID + 1);
+
+    @Setup
+    public void start() {
+        questions = new ArrayList<>(numQuestions);
+        questionIds = new int[numQuestions];
+        for(int i = 0; i < numQuestions; i++) {
+            questionIds[i] = i + 1;
+            questions.add(new QuestionWrapper(i + 1, "Which keyword declares a constant in Java? (" + (i + 1) + ")",
+                    "const", "final", "static", "immutable"));
+        }
+        Quiz quiz = new Quiz();
+        quiz.setId(QUIZ_ID);
+        quiz.setTitle("JMH");
+        quiz.setQuestionIds(questionIds);
+
+        // stubOnly: no invocation history piling up over millions of calls
+        QuizDao quizDao = mock(QuizDao.class, withSettings().stubOnly());
+        when(quizDao.findById(any())).thenReturn(Optional.of(quiz));
+        QuizInterface quizInterface = mock(QuizInterface.class, withSettings().stubOnly());
+        when(quizInterface.getQuestionsFromId(any())).thenReturn(ResponseEntity.ok(questions));
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        questionClient = new QuestionClient();
+        ReflectionTestUtils.setField(questionClient, "quizInterface", quizInterface);
+        ReflectionTestUtils.setField(questionClient, "circuitBreakerRegistry", CircuitBreakerRegistry.ofDefaults());
+        ReflectionTestUtils.setField(questionClient, "bulkheadRegistry", BulkheadRegistry.ofDefaults());
+        ReflectionTestUtils.setField(questionClient, "timeLimiterRegistry", TimeLimiterRegistry.ofDefaults());
+        ReflectionTestUtils.setField(questionClient, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(questionClient, "transport", "http");
+        ReflectionTestUtils.setField(questionClient, "hedgeDelay", Duration.ofMillis(150));
+        ReflectionTestUtils.invokeMethod(questionClient, "init");
+
+        QuizQuestionCache quizQuestionCache = new QuizQuestionCache();
+        ReflectionTestUtils.setField(quizQuestionCache, "quizDao", quizDao);
+        ReflectionTestUtils.setField(quizQuestionCache, "questionClient", questionClient);
+        ReflectionTestUtils.setField(quizQuestionCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(quizQuestionCache, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(quizQuestionCache, "maxWeightBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(quizQuestionCache, "expireAfterAccess", Duration.ofHours(1));
+        ReflectionTestUtils.setField(quizQuestionCache, "staleMaxWeightBytes", 32L * 1024 * 1024);
+        ReflectionTestUtils.setField(quizQuestionCache, "gzipMinBytes", 1024);
+        ReflectionTestUtils.invokeMethod(quizQuestionCache, "init");
+
+        quizService = new QuizService();
+        ReflectionTestUtils.setField(quizService, "quizDao", quizDao);
+        ReflectionTestUtils.setField(quizService, "questionClient", questionClient);
+        ReflectionTestUtils.setField(quizService, "quizQuestionCache", quizQuestionCache);
+        ReflectionTestUtils.setField(quizService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(quizService, "questionIdsMaxSize", 100_000L);
+        ReflectionTestUtils.setField(quizService, "httpMaxAge", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(quizService, "init");
+
+        etag = quizService.getQuizQuestions(QUIZ_ID, null, acceptEncoding).getHeaders().getETag();
+    }
+
+    @TearDown
+    public void stop() {
+        ReflectionTestUtils.invokeMethod(questionClient, "shutdown");
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cacheHit() {
+        return quizService.getQuizQuestions(QUIZ_ID, null, acceptEncoding);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> notModified() {
+        return quizService.getQuizQuestions(QUIZ_ID, etag, acceptEncoding);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cacheMiss() {
+        return quizService.getQuizQuestions(nextQuizId.getAndIncrement(), null, acceptEncoding);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> serializePerRequest() throws JsonProcessingException {
+        List<QuestionWrapper> body = questionClient.getQuestionsFromId(questionIds);
+        return ResponseEntity.status(HttpStatus.OK)
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(body));
+    }
+}
@@ -0,0 +1,46 @@
+// k6 load test for the quiz read and submit paths, sent straight to quiz-service.
+//
+//   k6 run -e USERS=200   -e QUIZ_ID=1 load-tests/quiz-get.js
+//   k6 run -e USERS=2000  -e QUIZ_ID=1 load-tests/quiz-get.js
+//   k6 run -e USERS=10000 -e QUIZ_ID=1 load-tests/quiz-get.js
+//
+// Every virtual user shares k6's address, so through the gateway the per-client limit on
+// quiz/submit (1 rps, burst 5) would answer almost every submission with 429. To include the
+// gateway, start it with --spring.profiles.active=load-test and pass
+// -e BASE_URL=http://localhost:8765/quiz-service.
+//
+// Run each level once with the services on platform threads and once with
+// --spring.profiles.active=virtual-threads, and compare http_reqs/s and the p(99)
+// of http_req_duration in the summary.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8090';
+const QUIZ_ID = __ENV.QUIZ_ID || '1';
+const USERS = parseInt(__ENV.USERS || '200');
+
+export const options = {
+    scenarios: {
+        exam: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: USERS },
+                { duration: '2m', target: USERS },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const questions = http.get(`${BASE_URL}/quiz/get/${QUIZ_ID}`);
+    check(questions, { 'questions loaded': (r) => r.status === 200 });
+
+    const responses = JSON.parse(questions.body || '[]').map((q) => ({ id: q.id, response: q.option1 }));
+    const submit = http.post(`${BASE_URL}/quiz/submit/${QUIZ_ID}`, JSON.stringify(responses), {
+        headers: { 'Content-Type': 'application/json' },
+    });
+    check(submit, { 'submission scored': (r) => r.status === 200 });
+}
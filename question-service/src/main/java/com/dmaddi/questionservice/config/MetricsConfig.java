@@ -0,0 +1,25 @@
+package com.dmaddi.questionservice.config;
+
+import com.dmaddi.questionservice.metrics.QueryCountFilter;
+import com.dmaddi.questionservice.metrics.QueryCountingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request SQL statement counting: datasource-micrometer's DataSource proxy reports each
+ * statement to the listener and the filter records the total once the request is done.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public QueryCountingListener queryCountingListener() {
+        return new QueryCountingListener();
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(MeterRegistry meterRegistry) {
+        return new QueryCountFilter(meterRegistry);
+    }
+}
@@ -1,13 +1,27 @@
 package com.dmaddi.questionservice.controller;
 
+import com.dmaddi.questionservice.model.AnswerKeyEntry;
+import com.dmaddi.questionservice.model.AnswerKeyStats;
+import com.dmaddi.questionservice.model.BulkIngestResult;
+import com.dmaddi.questionservice.model.CategoryStats;
 import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.model.QuestionChanges;
+import com.dmaddi.questionservice.model.QuestionSearchResult;
+import com.dmaddi.questionservice.model.QuestionSelection;
 import com.dmaddi.questionservice.model.QuestionWrapper;
 import com.dmaddi.questionservice.model.Response;
+import com.dmaddi.questionservice.model.ScoreResult;
+import com.dmaddi.questionservice.service.QuestionIngestService;
 import com.dmaddi.questionservice.service.QuestionService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,24 +30,80 @@ public class QuestionController {
     @Autowired
     private QuestionService questionService;
 
+    @Autowired
+    private QuestionIngestService questionIngestService;
+
     @GetMapping("allQuestions")
-    public ResponseEntity<List<Question>> getAllQuestion(){
+    public ResponseEntity<List<Question>> getAllQuestion(@RequestParam(defaultValue = "0") int afterId,
+                                                         @RequestParam(required = false) Integer limit){
+        if(limit != null)
+            return questionService.getQuestionsPage(null, afterId, limit);
         return questionService.getAllQuestions();
     }
 
+    @GetMapping(value = "allQuestions", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllQuestions(){
+        return questionService.streamQuestions(null);
+    }
+
     @GetMapping("category/{category}")
-    public ResponseEntity<List<Question>> getQuestionsByCategory(@PathVariable String category){
+    public ResponseEntity<List<Question>> getQuestionsByCategory(@PathVariable String category,
+                                                                 @RequestParam(defaultValue = "0") int afterId,
+                                                                 @RequestParam(required = false) Integer limit){
+        if(limit != null)
+            return questionService.getQuestionsPage(category, afterId, limit);
         return questionService.getQuestionsByCategory(category);
     }
 
+    @GetMapping(value = "category/{category}", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamQuestionsByCategory(@PathVariable String category){
+        return questionService.streamQuestions(category);
+    }
+
+    @GetMapping("search")
+    public ResponseEntity<QuestionSearchResult> searchQuestions(@RequestParam(required = false) String q,
+                                                                @RequestParam(required = false) String category,
+                                                                @RequestParam(required = false) String difficulty,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "20") int size){
+        return questionService.searchQuestions(q, category, difficulty, page, size);
+    }
+
     @PostMapping("add")
     public ResponseEntity<String> addQuestion(@RequestBody Question question){
         return questionService.addQuestion(question);
     }
 
+    @PutMapping("update/{id}")
+    public ResponseEntity<String> updateQuestion(@PathVariable Integer id, @RequestBody Question question){
+        return questionService.updateQuestion(id, question);
+    }
+
+    @PostMapping(value = "bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson", "text/csv"})
+    public ResponseEntity<BulkIngestResult> addQuestions(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                         HttpServletRequest request) throws IOException {
+        return questionIngestService.ingest(contentType, request.getInputStream());
+    }
+
     @GetMapping("generate")
-    public ResponseEntity<List<Integer>> getQuestionsForQuiz(@RequestParam String categoryName, @RequestParam Integer numQuestions){
-        return questionService.getQuestionsForQuiz(categoryName, numQuestions);
+    public ResponseEntity<List<Integer>> getQuestionsForQuiz(@RequestParam String categoryName, @RequestParam Integer numQuestions,
+                                                             @RequestParam(defaultValue = "false") boolean stratified){
+        return questionService.getQuestionsForQuiz(categoryName, numQuestions, stratified);
+    }
+
+    @PostMapping("generate")
+    public ResponseEntity<List<Integer>> selectQuestions(@RequestBody QuestionSelection selection){
+        return questionService.selectQuestions(selection);
+    }
+
+    @GetMapping("stats")
+    public ResponseEntity<List<CategoryStats>> getCategoryStats(){
+        return questionService.getCategoryStats();
+    }
+
+    @GetMapping("stats/{category}")
+    public ResponseEntity<CategoryStats> getCategoryStats(@PathVariable String category){
+        return questionService.getCategoryStats(category);
     }
 
     @PostMapping("getQuestions")
@@ -45,5 +115,32 @@ public class QuestionController {
     public ResponseEntity<Integer> getScore(@RequestBody List<Response> responses){
         return questionService.getScore(responses);
     }
+
+    @PostMapping("getScores")
+    public ResponseEntity<List<Integer>> getScores(@RequestBody List<List<Response>> submissions){
+        return questionService.getScores(submissions);
+    }
+
+    @PostMapping("answerKey")
+    public ResponseEntity<List<AnswerKeyEntry>> getAnswerKey(@RequestBody List<Integer> questionIds){
+        return questionService.getAnswerKey(questionIds);
+    }
+
+    @GetMapping("changes")
+    public ResponseEntity<QuestionChanges> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                      @RequestParam(defaultValue = "0") int afterId,
+                                                      @RequestParam(defaultValue = "1000") int limit){
+        return questionService.getChanges(since, afterId, limit);
+    }
+
+    @GetMapping("answerKey/stats")
+    public ResponseEntity<AnswerKeyStats> getAnswerKeyStats(){
+        return questionService.getAnswerKeyStats();
+    }
+
+    @PostMapping("getScoreDetails")
+    public ResponseEntity<ScoreResult> getScoreDetails(@RequestBody List<Response> responses){
+        return questionService.getScoreDetails(responses);
+    }
 }
 
@@ -1,16 +1,61 @@
 package com.dmaddi.questionservice.dao;
 
+import com.dmaddi.questionservice.model.AnswerKey;
 import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.model.QuestionVersion;
+import com.dmaddi.questionservice.model.QuestionWrapper;
+import com.dmaddi.questionservice.model.SamplingKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuestionDao extends JpaRepository<Question, Integer> {
     List<Question> findByCategory(String category);
 
+    List<Question> findByCategoryIgnoreCaseOrderById(String category);
+
+    List<Question> findByIdGreaterThanOrderById(Integer afterId, Limit limit);
+
+    List<Question> findByCategoryIgnoreCaseAndIdGreaterThanOrderById(String category, Integer afterId, Limit limit);
+
     @Query(value = "SELECT q.id FROM question q WHERE q.category=:category ORDER BY RANDOM() LIMIT :numQ", nativeQuery = true)
     List<Integer> findRandomQuestionsByCategory(String category, int numQ);
+
+    @Query(value = "SELECT q.id FROM question q WHERE q.category=:category AND q.difficulty_level=:difficultyLevel " +
+            "ORDER BY RANDOM() LIMIT :numQ", nativeQuery = true)
+    List<Integer> findRandomQuestionsByCategoryAndDifficultyLevel(String category, String difficultyLevel, int numQ);
+
+    @Query("SELECT new com.dmaddi.questionservice.model.QuestionWrapper(q.id, q.questionTitle, q.option1, q.option2, q.option3, q.option4) " +
+            "FROM Question q WHERE q.id IN :ids")
+    List<QuestionWrapper> findWrappersByIdIn(Collection<Integer> ids);
+
+    @Query("SELECT q.id AS id, q.rightAnswer AS rightAnswer FROM Question q WHERE q.id IN :ids")
+    List<AnswerKey> findAnswerKeysByIdIn(Collection<Integer> ids);
+
+    @Query("SELECT q.id AS id, q.updatedAt AS updatedAt FROM Question q " +
+            "WHERE q.updatedAt > :since AND q.id > :afterId ORDER BY q.id")
+    List<QuestionVersion> findVersionsUpdatedAfterInIdOrder(Instant since, Integer afterId, Limit limit);
+
+    // keyset page in (updatedAt, id) order, starting after (since, afterId)
+    @Query("SELECT q.id AS id, q.updatedAt AS updatedAt FROM Question q " +
+            "WHERE q.updatedAt > :since OR (q.updatedAt = :since AND q.id > :afterId) ORDER BY q.updatedAt, q.id")
+    List<QuestionVersion> findVersionsUpdatedAfter(Instant since, Integer afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT q.id AS id, q.rightAnswer AS rightAnswer FROM Question q")
+    Stream<AnswerKey> streamAllAnswerKeys();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT q.id AS id, q.category AS category, q.difficultyLevel AS difficultyLevel FROM Question q")
+    Stream<SamplingKey> streamAllSamplingKeys();
 }
@@ -0,0 +1,74 @@
+package com.dmaddi.questionservice.dao;
+
+import com.dmaddi.questionservice.model.Question;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+/**
+ * Reads questions through a forward-only JDBC cursor so a full export never holds more than
+ * one fetch of rows in memory. Postgres only uses a server-side cursor when auto-commit is off,
+ * hence the read-only transaction around each query.
+ */
+@Repository
+public class QuestionStreamDao {
+
+    private static final String SELECT_QUESTIONS = "SELECT id, difficulty_level, category, question_title, " +
+            "option1, option2, option3, option4, right_answer, updated_at FROM question";
+
+    public static final RowMapper<Question> QUESTION_ROW_MAPPER = (rs, rowNum) -> {
+        Question question = new Question();
+        question.setId(rs.getInt("id"));
+        question.setDifficultyLevel(rs.getString("difficulty_level"));
+        question.setCategory(rs.getString("category"));
+        question.setQuestionTitle(rs.getString("question_title"));
+        question.setOption1(rs.getString("option1"));
+        question.setOption2(rs.getString("option2"));
+        question.setOption3(rs.getString("option3"));
+        question.setOption4(rs.getString("option4"));
+        question.setRightAnswer(rs.getString("right_answer"));
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        question.setUpdatedAt(updatedAt == null ? null : updatedAt.toInstant());
+        return question;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${question.export.fetch-size:500}")
+    private int fetchSize;
+
+    public void streamAll(Consumer<Question> consumer) {
+        stream(SELECT_QUESTIONS + " ORDER BY id", null, consumer);
+    }
+
+    public void streamByCategory(String category, Consumer<Question> consumer) {
+        stream(SELECT_QUESTIONS + " WHERE lower(category) = lower(?) ORDER BY id", category, consumer);
+    }
+
+    private void stream(String sql, String parameter, Consumer<Question> consumer) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            if(parameter != null)
+                statement.setString(1, parameter);
+            return statement;
+        }, rs -> {
+            consumer.accept(QUESTION_ROW_MAPPER.mapRow(rs, 0));
+        }));
+    }
+}
@@ -0,0 +1,17 @@
+package com.dmaddi.questionservice.event;
+
+import com.dmaddi.questionservice.model.Question;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published whenever questions are inserted or updated. In-process indexes listen for it
+ * after the surrounding transaction commits, so they never see rolled-back rows.
+ */
+@Getter
+@RequiredArgsConstructor
+public class QuestionsSavedEvent {
+    private final List<Question> questions;
+}
@@ -0,0 +1,132 @@
+package com.dmaddi.questionservice.grpc;
+
+import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.model.QuestionWrapper;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC counterpart of POST question/getQuestions. The requested ids are read question.grpc.chunk-size
+ * at a time, each in its own short query, and a chunk is only read once the previous one has been
+ * handed to a transport that is ready for more. A slow caller therefore holds neither a connection
+ * nor a buffer of unsent questions.
+ */
+@Slf4j
+@GrpcService
+public class QuestionStreamGrpcService extends QuestionStreamGrpc.QuestionStreamImplBase {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Value("${question.grpc.chunk-size:100}")
+    private int chunkSize;
+
+    @Override
+    public void streamQuestions(QuestionIdsRequest request, StreamObserver<QuestionMessage> responseObserver) {
+        int[] ids = request.getIdsList().stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+        if(ids.length == 0) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("No question ids requested").asRuntimeException());
+            return;
+        }
+
+        ServerCallStreamObserver<QuestionMessage> call = (ServerCallStreamObserver<QuestionMessage>) responseObserver;
+        QuestionSender sender = new QuestionSender(ids, call);
+        call.setOnCancelHandler(sender::cancel);
+        call.setOnReadyHandler(sender::send);
+    }
+
+    /**
+     * Sends the questions of one call. gRPC runs the ready and cancel handlers of a call one at a
+     * time, so the sender needs no locking.
+     */
+    private class QuestionSender {
+
+        private final int[] ids;
+        private final ServerCallStreamObserver<QuestionMessage> call;
+        private final Queue<QuestionMessage> pending = new ArrayDeque<>();
+        private final List<Integer> missing = new ArrayList<>();
+        private int next;
+        private boolean done;
+
+        QuestionSender(int[] ids, ServerCallStreamObserver<QuestionMessage> call) {
+            this.ids = ids;
+            this.call = call;
+        }
+
+        void send() {
+            try {
+                while(!done && call.isReady()) {
+                    if(!pending.isEmpty())
+                        call.onNext(pending.poll());
+                    else if(next < ids.length)
+                        readChunk();
+                    else
+                        finish();
+                }
+            } catch (RuntimeException e) {
+                done = true;
+                call.onError(Status.INTERNAL.withDescription(e.getMessage()).withCause(e).asRuntimeException());
+            }
+        }
+
+        void cancel() {
+            done = true;
+            log.debug("Question stream cancelled after {} of {} ids", next, ids.length);
+        }
+
+        private void readChunk() {
+            int end = Math.min(next + chunkSize, ids.length);
+            List<Integer> chunk = new ArrayList<>(end - next);
+            for(int i = next; i < end; i++)
+                chunk.add(ids[i]);
+
+            List<QuestionWrapper> wrappers = new ArrayList<>(questionDao.findWrappersByIdIn(chunk));
+            wrappers.sort(Comparator.comparingInt(QuestionWrapper::getId));
+            // both sides are sorted, so one pass finds the ids with no row
+            int found = 0;
+            for(int i = next; i < end; i++) {
+                if(found < wrappers.size() && wrappers.get(found).getId() == ids[i])
+                    pending.add(toMessage(wrappers.get(found++)));
+                else
+                    missing.add(ids[i]);
+            }
+            next = end;
+        }
+
+        private void finish() {
+            done = true;
+            if(missing.isEmpty())
+                call.onCompleted();
+            else
+                call.onError(Status.NOT_FOUND.withDescription("Unknown question ids: " +
+                        missing.stream().map(String::valueOf).collect(Collectors.joining(","))).asRuntimeException());
+        }
+    }
+
+    private static QuestionMessage toMessage(QuestionWrapper wrapper) {
+        return QuestionMessage.newBuilder()
+                .setId(wrapper.getId())
+                .setQuestionTitle(nullToEmpty(wrapper.getQuestionTitle()))
+                .setOption1(nullToEmpty(wrapper.getOption1()))
+                .setOption2(nullToEmpty(wrapper.getOption2()))
+                .setOption3(nullToEmpty(wrapper.getOption3()))
+                .setOption4(nullToEmpty(wrapper.getOption4()))
+                .build();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,265 @@
+package com.dmaddi.questionservice.index;
+
+import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.event.QuestionsSavedEvent;
+import com.dmaddi.questionservice.model.AnswerKey;
+import com.dmaddi.questionservice.model.AnswerKeyStats;
+import com.dmaddi.questionservice.model.Question;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process map from question id to its right answer.
+ * <p>
+ * Keys live in a primitive open-addressing {@code int[]} table (ids are always positive, so 0 marks
+ * an empty slot) and answers are interned, so millions of entries cost a few bytes each plus one
+ * reference. Reads are lock-free under an optimistic stamp; writes are serialized.
+ * <p>
+ * Saved questions always overwrite their entry. Misses filled from the database and the startup
+ * warm-up never do, since the row they read may be older than a save that has already landed.
+ * Saves made by other instances reach this one through {@link AnswerKeyRefresher}, which removes
+ * their entries so the next lookup reads the new answer.
+ */
+@Slf4j
+@Component
+public class AnswerKeyIndex implements MeterBinder {
+
+    private static final int EMPTY = 0;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Value("${question.answer-key.initial-capacity:1024}")
+    private int initialCapacity;
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, String> internedAnswers = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private int[] keys;
+    private String[] answers;
+    private int size;
+    // answers overwritten since internedAnswers was last rebuilt from the table
+    private int replaced;
+    private volatile boolean warmed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warm() {
+        long start = System.nanoTime();
+        try (Stream<AnswerKey> keys = questionDao.streamAllAnswerKeys()) {
+            keys.forEach(key -> putIfAbsent(key.getId(), key.getRightAnswer()));
+        }
+        warmed = true;
+        log.info("Answer key index warmed with {} questions in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionsSaved(QuestionsSavedEvent event) {
+        for(Question question: event.getQuestions())
+            put(question.getId(), question.getRightAnswer());
+    }
+
+    /**
+     * Returns the right answer for the id, or null when the id is not indexed.
+     * A stored question without an answer is indexed as the empty string.
+     */
+    public String get(int id) {
+        long stamp = lock.tryOptimisticRead();
+        String answer = find(id);
+        if(!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                answer = find(id);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        if(answer == null)
+            misses.increment();
+        else
+            hits.increment();
+        return answer;
+    }
+
+    public void put(int id, String answer) {
+        store(id, answer, true);
+    }
+
+    /**
+     * Indexes the answer unless the id already has one, and returns the answer the index holds
+     * afterwards. Used to fill misses from the database without overwriting a newer save.
+     */
+    public String putIfAbsent(int id, String answer) {
+        return store(id, answer, false);
+    }
+
+    /**
+     * Drops the id's entry, if any; the next lookup misses and reads the database.
+     */
+    public void remove(int id) {
+        long stamp = lock.writeLock();
+        try {
+            if(keys == null)
+                return;
+            int slot = slotOf(keys, id);
+            if(keys[slot] == EMPTY)
+                return;
+            keys[slot] = EMPTY;
+            answers[slot] = null;
+            size--;
+            replaced++;
+            // Shift the rest of the probe run back, so no entry after the hole becomes unreachable.
+            int mask = keys.length - 1;
+            for(int hole = slot, next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = mix(keys[next]) & mask;
+                if(((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    answers[hole] = answers[next];
+                    keys[next] = EMPTY;
+                    answers[next] = null;
+                    hole = next;
+                }
+            }
+            if(replaced > size)
+                compactInternedAnswers();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("question.answer_key.lookups", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("question.answer_key.lookups", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("question.answer_key.size", this, AnswerKeyIndex::size)
+                .register(registry);
+    }
+
+    public AnswerKeyStats stats() {
+        long stamp = lock.readLock();
+        try {
+            return new AnswerKeyStats(size, keys == null ? 0 : keys.length, internedAnswers.size(),
+                    hits.sum(), misses.sum(), warmed);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private String store(int id, String answer, boolean replace) {
+        if(id <= 0)
+            throw new IllegalArgumentException("Question ids must be positive: " + id);
+
+        long stamp = lock.writeLock();
+        try {
+            if(keys == null || (size + 1) * 2 > keys.length)
+                resize();
+
+            int slot = slotOf(keys, id);
+            if(keys[slot] != EMPTY && !replace)
+                return answers[slot];
+
+            String interned = internedAnswers.computeIfAbsent(answer == null ? "" : answer, a -> a);
+            if(keys[slot] == EMPTY) {
+                keys[slot] = id;
+                size++;
+            } else if(answers[slot] != interned) {
+                replaced++;
+            }
+            answers[slot] = interned;
+            // Edits leave old answers interned; once they could outnumber the entries, keep only those still used.
+            if(replaced > size)
+                compactInternedAnswers();
+            return interned;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void compactInternedAnswers() {
+        internedAnswers.clear();
+        for(String answer: answers) {
+            if(answer != null)
+                internedAnswers.putIfAbsent(answer, answer);
+        }
+        replaced = 0;
+    }
+
+    private String find(int id) {
+        int[] k = keys;
+        String[] a = answers;
+        if(k == null || a == null || k.length != a.length)
+            return null;
+
+        int mask = k.length - 1;
+        for(int slot = mix(id) & mask, probes = 0; probes < k.length; slot = (slot + 1) & mask, probes++) {
+            int key = k[slot];
+            if(key == id)
+                return a[slot];
+            if(key == EMPTY)
+                return null;
+        }
+        return null;
+    }
+
+    private void resize() {
+        int capacity = keys == null ? Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1 : keys.length << 1;
+        int[] newKeys = new int[capacity];
+        String[] newAnswers = new String[capacity];
+        if(keys != null) {
+            for(int i = 0; i < keys.length; i++) {
+                if(keys[i] != EMPTY) {
+                    int slot = slotOf(newKeys, keys[i]);
+                    newKeys[slot] = keys[i];
+                    newAnswers[slot] = answers[i];
+                }
+            }
+        }
+        keys = newKeys;
+        answers = newAnswers;
+    }
+
+    private static int slotOf(int[] table, int id) {
+        int mask = table.length - 1;
+        int slot = mix(id) & mask;
+        while(table[slot] != EMPTY && table[slot] != id)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
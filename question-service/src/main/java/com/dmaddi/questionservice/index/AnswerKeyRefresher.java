@@ -0,0 +1,117 @@
+package com.dmaddi.questionservice.index;
+
+import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.model.QuestionVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link AnswerKeyIndex} of this instance in step with edits made through other
+ * instances. Every question.answer-key.refresh-interval it reads the questions whose updated_at
+ * moved (the column behind GET question/changes) and removes their entries, so the next lookup
+ * reads the new answer from the database.
+ * <p>
+ * Each pass re-reads question.changes.overlap before the newest change seen, to catch edits that
+ * committed late with an earlier timestamp. An (id, updated_at) pair is only acted on once, so the
+ * overlap costs one indexed query and no extra misses.
+ */
+@Slf4j
+@Component
+public class AnswerKeyRefresher {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerKeyIndex answerKeyIndex;
+
+    @Value("${question.answer-key.refresh-interval:5s}")
+    private Duration refreshInterval;
+
+    @Value("${question.answer-key.refresh-page-size:1000}")
+    private int pageSize;
+
+    @Value("${question.changes.overlap:1m}")
+    private Duration overlap;
+
+    private ScheduledExecutorService refresher;
+    // newest updated_at seen; starts before the warm-up reads, so no edit falls between the two
+    private Instant newest;
+    // updated_at of each change already applied, kept while it is inside the overlap window
+    private final Map<Integer, Instant> applied = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        newest = Instant.now();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "question-answer-key-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshSafely, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if(refresher != null)
+            refresher.shutdownNow();
+    }
+
+    /**
+     * Removes the index entries of questions changed since the last pass; returns how many.
+     */
+    public synchronized int refresh() {
+        Instant since = newest.minus(overlap);
+        int afterId = 0;
+        int removed = 0;
+        List<QuestionVersion> page;
+        do {
+            page = questionDao.findVersionsUpdatedAfter(since, afterId, Limit.of(pageSize));
+            for(QuestionVersion version: page) {
+                if(!version.getUpdatedAt().equals(applied.put(version.getId(), version.getUpdatedAt()))) {
+                    answerKeyIndex.remove(version.getId());
+                    removed++;
+                }
+                if(version.getUpdatedAt().isAfter(newest))
+                    newest = version.getUpdatedAt();
+                since = version.getUpdatedAt();
+                afterId = version.getId();
+            }
+        } while(page.size() == pageSize);
+
+        Instant windowStart = newest.minus(overlap);
+        applied.values().removeIf(updatedAt -> updatedAt.isBefore(windowStart));
+        return removed;
+    }
+
+    private void refreshSafely() {
+        try {
+            int removed = refresh();
+            if(removed > 0)
+                log.debug("Removed {} changed answers from the answer key index", removed);
+        } catch (RuntimeException e) {
+            log.warn("Could not read question changes, the answer key index may serve edited answers", e);
+        }
+    }
+}
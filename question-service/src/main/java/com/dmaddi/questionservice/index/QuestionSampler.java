@@ -0,0 +1,277 @@
+package com.dmaddi.questionservice.index;
+
+import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.event.QuestionsSavedEvent;
+import com.dmaddi.questionservice.model.CategoryStats;
+import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.model.SamplingKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Per-category arrays of question ids used to draw random quiz questions in O(numQ)
+ * with Floyd's algorithm instead of sorting the whole category with ORDER BY RANDOM().
+ * <p>
+ * Ids are appended as questions are saved, and moved when a saved question changes category or
+ * difficulty, so the pool sizes double as live per-(category, difficulty) counts.
+ */
+@Slf4j
+@Component
+public class QuestionSampler {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    private final Map<String, CategoryPool> pools = new ConcurrentHashMap<>();
+    // Where each id is placed, indexed by id; placements are shared per (category, difficulty).
+    private final Map<Placement, Placement> placementsByKey = new HashMap<>();
+    private Placement[] placements = new Placement[1024];
+    private volatile boolean warmed;
+
+    private record Placement(String category, String difficultyLevel) {}
+
+    // placement of a known question without a category, which is not sampled
+    private static final Placement NOT_SAMPLED = new Placement(null, null);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warm() {
+        long start = System.nanoTime();
+        try (Stream<SamplingKey> keys = questionDao.streamAllSamplingKeys()) {
+            keys.forEach(key -> addIfAbsent(key.getId(), key.getCategory(), key.getDifficultyLevel()));
+        }
+        warmed = true;
+        log.info("Question sampler warmed with {} categories in {} ms", pools.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionsSaved(QuestionsSavedEvent event) {
+        for(Question question: event.getQuestions())
+            add(question.getId(), question.getCategory(), question.getDifficultyLevel());
+    }
+
+    public boolean isWarmed() {
+        return warmed;
+    }
+
+    /**
+     * Places the id under its category and difficulty, moving it if it was placed elsewhere.
+     * A question without a category is not sampled.
+     */
+    public void add(int id, String category, String difficultyLevel) {
+        place(id, category, difficultyLevel, true);
+    }
+
+    /**
+     * Places the id unless it is already known. The warm-up uses this, so a row it read before a
+     * save landed cannot move the saved question back.
+     */
+    public void addIfAbsent(int id, String category, String difficultyLevel) {
+        place(id, category, difficultyLevel, false);
+    }
+
+    private void place(int id, String category, String difficultyLevel, boolean replace) {
+        synchronized (placementsByKey) {
+            Placement placement = category == null ? NOT_SAMPLED
+                    : placementsByKey.computeIfAbsent(new Placement(category, difficultyLevel == null ? "" : difficultyLevel), p -> p);
+            Placement previous = id < placements.length ? placements[id] : null;
+            if(previous == placement || (previous != null && !replace))
+                return;
+            if(id >= placements.length)
+                placements = Arrays.copyOf(placements, Math.max(id + 1, placements.length << 1));
+            placements[id] = placement;
+
+            if(previous != null && previous != NOT_SAMPLED)
+                pools.get(previous.category()).remove(id, previous.difficultyLevel());
+            if(placement != NOT_SAMPLED)
+                pools.computeIfAbsent(category, c -> new CategoryPool()).add(id, placement.difficultyLevel());
+        }
+    }
+
+    /**
+     * Number of questions per difficulty level of the category, empty for an unknown category.
+     */
+    public Optional<CategoryStats> stats(String category) {
+        CategoryPool pool = pools.get(category);
+        if(pool == null)
+            return Optional.empty();
+        CategoryStats stats = pool.stats(category);
+        return stats.getTotal() == 0 ? Optional.empty() : Optional.of(stats);
+    }
+
+    public List<CategoryStats> stats() {
+        List<CategoryStats> stats = new ArrayList<>(pools.size());
+        pools.forEach((category, pool) -> {
+            CategoryStats categoryStats = pool.stats(category);
+            if(categoryStats.getTotal() > 0)
+                stats.add(categoryStats);
+        });
+        stats.sort(Comparator.comparing(CategoryStats::getCategory));
+        return stats;
+    }
+
+    /**
+     * Draws up to numQ distinct ids from the category. When stratified, the draw is split across
+     * difficulty levels in proportion to how many questions each level holds.
+     */
+    public List<Integer> sample(String category, int numQ, boolean stratified) {
+        CategoryPool pool = pools.get(category);
+        if(pool == null || numQ <= 0)
+            return new ArrayList<>();
+        return stratified ? pool.sampleStratified(numQ) : pool.sample(numQ);
+    }
+
+    /**
+     * Draws exactly the given number of distinct ids from each difficulty level of the category.
+     * Returns null, drawing nothing, if any level holds fewer questions than asked for.
+     */
+    public List<Integer> sample(String category, Map<String, Integer> perDifficulty) {
+        CategoryPool pool = pools.get(category);
+        return pool == null ? null : pool.sampleMix(perDifficulty);
+    }
+
+    static final class CategoryPool {
+        private final IdList all = new IdList();
+        private final Map<String, IdList> byDifficulty = new HashMap<>();
+
+        synchronized void add(int id, String difficultyLevel) {
+            all.add(id);
+            byDifficulty.computeIfAbsent(difficultyLevel, d -> new IdList()).add(id);
+        }
+
+        synchronized void remove(int id, String difficultyLevel) {
+            all.remove(id);
+            IdList level = byDifficulty.get(difficultyLevel);
+            if(level != null && level.remove(id) && level.size == 0)
+                byDifficulty.remove(difficultyLevel);
+        }
+
+        synchronized CategoryStats stats(String category) {
+            Map<String, Integer> counts = new TreeMap<>();
+            byDifficulty.forEach((difficultyLevel, ids) -> counts.put(difficultyLevel, ids.size));
+            return new CategoryStats(category, all.size, counts);
+        }
+
+        synchronized List<Integer> sampleMix(Map<String, Integer> perDifficulty) {
+            int wanted = 0;
+            for(Map.Entry<String, Integer> entry: perDifficulty.entrySet()) {
+                IdList level = byDifficulty.get(entry.getKey());
+                if(level == null || level.size < entry.getValue())
+                    return null;
+                wanted += entry.getValue();
+            }
+            List<Integer> ids = new ArrayList<>(wanted);
+            perDifficulty.forEach((difficultyLevel, count) -> byDifficulty.get(difficultyLevel).sampleInto(count, ids));
+            shuffle(ids);
+            return ids;
+        }
+
+        synchronized List<Integer> sample(int numQ) {
+            List<Integer> ids = new ArrayList<>(Math.min(numQ, all.size));
+            all.sampleInto(numQ, ids);
+            shuffle(ids);
+            return ids;
+        }
+
+        synchronized List<Integer> sampleStratified(int numQ) {
+            int total = all.size;
+            int wanted = Math.min(numQ, total);
+            List<IdList> levels = new ArrayList<>(byDifficulty.values());
+            int[] quotas = new int[levels.size()];
+            double[] remainders = new double[levels.size()];
+            int assigned = 0;
+            for(int i = 0; i < levels.size(); i++) {
+                double exact = (double) wanted * levels.get(i).size / total;
+                quotas[i] = (int) exact;
+                remainders[i] = exact - quotas[i];
+                assigned += quotas[i];
+            }
+            // Largest remainder first, so quotas add up to exactly the number requested.
+            while(assigned < wanted) {
+                int best = -1;
+                for(int i = 0; i < levels.size(); i++) {
+                    if(quotas[i] < levels.get(i).size && (best < 0 || remainders[i] > remainders[best]))
+                        best = i;
+                }
+                quotas[best]++;
+                remainders[best] = -1;
+                assigned++;
+            }
+
+            List<Integer> ids = new ArrayList<>(wanted);
+            for(int i = 0; i < levels.size(); i++)
+                levels.get(i).sampleInto(quotas[i], ids);
+            shuffle(ids);
+            return ids;
+        }
+
+        private static void shuffle(List<Integer> ids) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for(int i = ids.size() - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Integer swap = ids.get(i);
+                ids.set(i, ids.get(j));
+                ids.set(j, swap);
+            }
+        }
+    }
+
+    static final class IdList {
+        private int[] ids = new int[16];
+        private int size;
+
+        void add(int id) {
+            if(size == ids.length)
+                ids = Arrays.copyOf(ids, size << 1);
+            ids[size++] = id;
+        }
+
+        /** Linear scan; only used when a saved question changes category or difficulty. */
+        boolean remove(int id) {
+            for(int i = 0; i < size; i++) {
+                if(ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Floyd's algorithm: k distinct positions out of size using exactly k random draws. */
+        void sampleInto(int k, List<Integer> out) {
+            if(k >= size) {
+                for(int i = 0; i < size; i++)
+                    out.add(ids[i]);
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Set<Integer> chosen = new HashSet<>(k * 2);
+            for(int j = size - k; j < size; j++) {
+                int t = random.nextInt(j + 1);
+                int pick = chosen.add(t) ? t : j;
+                if(pick == j)
+                    chosen.add(j);
+                out.add(ids[pick]);
+            }
+        }
+    }
+}
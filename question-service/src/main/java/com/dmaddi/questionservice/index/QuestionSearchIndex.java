@@ -0,0 +1,369 @@
+package com.dmaddi.questionservice.index;
+
+import com.dmaddi.questionservice.dao.QuestionStreamDao;
+import com.dmaddi.questionservice.event.QuestionsSavedEvent;
+import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.model.QuestionSearchHit;
+import com.dmaddi.questionservice.model.QuestionSearchResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index of every question: full text over the title and the options, facets on
+ * category and difficulty level, and lower-cased keys for case-insensitive category lookups.
+ * <p>
+ * Questions are stored in the index too, so lookups never reach Postgres. The index is rebuilt
+ * from the table at startup (in memory unless question.search.index-path is set) and updated as
+ * questions are saved; each save is searchable once its listener returns.
+ */
+@Slf4j
+@Component
+public class QuestionSearchIndex {
+
+    public static final String CATEGORY_FACET = "category";
+    public static final String DIFFICULTY_FACET = "difficultyLevel";
+
+    private static final String ID = "id";
+    private static final String ID_ORDER = "id_order";
+    private static final String TITLE = "questionTitle";
+    private static final String[] OPTIONS = {"option1", "option2", "option3", "option4"};
+    private static final String CATEGORY = "category";
+    private static final String CATEGORY_KEY = "category_key";
+    private static final String DIFFICULTY = "difficultyLevel";
+    private static final String DIFFICULTY_KEY = "difficulty_key";
+    private static final String RIGHT_ANSWER = "rightAnswer";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final Map<String, Float> TEXT_FIELD_WEIGHTS = Map.of(TITLE, 2f,
+            OPTIONS[0], 1f, OPTIONS[1], 1f, OPTIONS[2], 1f, OPTIONS[3], 1f);
+
+    @Autowired
+    private QuestionStreamDao questionStreamDao;
+
+    @Value("${question.search.index-path:}")
+    private String indexPath;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    // ids that have a document; guarded by itself, so the warm-up only adds questions no save has indexed
+    private final BitSet indexedIds = new BitSet();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile FacetState facetState;
+    private volatile boolean warmed;
+
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {}
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = indexPath == null || indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        long start = System.nanoTime();
+        questionStreamDao.streamAll(this::indexIfAbsent);
+        refresh();
+        warmed = true;
+        log.info("Question search index warmed with {} questions in {} ms", writer.getDocStats().numDocs,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionsSaved(QuestionsSavedEvent event) {
+        for(Question question: event.getQuestions())
+            index(question);
+        refresh();
+    }
+
+    public boolean isWarmed() {
+        return warmed;
+    }
+
+    /**
+     * Adds the question, or replaces the indexed copy of the same id. Not searchable until the
+     * next {@link #refresh()}.
+     */
+    public void index(Question question) {
+        Document document = document(question);
+        synchronized (indexedIds) {
+            indexedIds.set(question.getId());
+            try {
+                writer.updateDocument(new Term(ID, String.valueOf(question.getId())), document);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Adds the question unless its id is already indexed. The warm-up uses this, so a row it read
+     * before a save landed cannot replace the saved copy.
+     */
+    public void indexIfAbsent(Question question) {
+        Document document = document(question);
+        synchronized (indexedIds) {
+            if(indexedIds.get(question.getId()))
+                return;
+            indexedIds.set(question.getId());
+            try {
+                writer.addDocument(document);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Document document(Question question) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(question.getId()), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID_ORDER, question.getId()));
+        addText(document, TITLE, question.getQuestionTitle());
+        addText(document, OPTIONS[0], question.getOption1());
+        addText(document, OPTIONS[1], question.getOption2());
+        addText(document, OPTIONS[2], question.getOption3());
+        addText(document, OPTIONS[3], question.getOption4());
+        addFacet(document, CATEGORY, CATEGORY_KEY, CATEGORY_FACET, question.getCategory());
+        addFacet(document, DIFFICULTY, DIFFICULTY_KEY, DIFFICULTY_FACET, question.getDifficultyLevel());
+        if(question.getRightAnswer() != null)
+            document.add(new StoredField(RIGHT_ANSWER, question.getRightAnswer()));
+        if(question.getUpdatedAt() != null)
+            document.add(new StoredField(UPDATED_AT, question.getUpdatedAt().toString()));
+        try {
+            return facetsConfig.build(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ranked page of the questions matching text (simple query syntax over the title and the
+     * options; blank matches everything), optionally narrowed to a category and difficulty
+     * level, both case-insensitive. Facet counts cover every match, not just the page.
+     */
+    public QuestionSearchResult search(String text, String category, String difficultyLevel,
+                                       int page, int size, int facetValues) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(text == null || text.isBlank() ? new MatchAllDocsQuery() : parse(text), BooleanClause.Occur.MUST);
+        if(category != null)
+            query.add(new TermQuery(new Term(CATEGORY_KEY, key(category))), BooleanClause.Occur.FILTER);
+        if(difficultyLevel != null)
+            query.add(new TermQuery(new Term(DIFFICULTY_KEY, key(difficultyLevel))), BooleanClause.Occur.FILTER);
+
+        IndexSearcher searcher = acquire();
+        try {
+            FacetsCollector facetsCollector = new FacetsCollector();
+            TopDocs top = FacetsCollector.search(searcher, query.build(), (page + 1) * size, facetsCollector);
+            long totalHits = 0;
+            for(FacetsCollector.MatchingDocs matchingDocs: facetsCollector.getMatchingDocs())
+                totalHits += matchingDocs.totalHits;
+
+            StoredFields storedFields = searcher.storedFields();
+            List<QuestionSearchHit> hits = new ArrayList<>(size);
+            for(int i = page * size; i < top.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = top.scoreDocs[i];
+                Document document = storedFields.document(scoreDoc.doc);
+                hits.add(new QuestionSearchHit(Integer.valueOf(document.get(ID)), document.get(TITLE),
+                        document.get(OPTIONS[0]), document.get(OPTIONS[1]), document.get(OPTIONS[2]), document.get(OPTIONS[3]),
+                        document.get(CATEGORY), document.get(DIFFICULTY), scoreDoc.score));
+            }
+            return new QuestionSearchResult(totalHits, page, size, hits,
+                    facetCounts(searcher.getIndexReader(), facetsCollector, facetValues));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Every question of the category, matched case-insensitively, in id order.
+     */
+    public List<Question> findByCategory(String category) {
+        Query query = new TermQuery(new Term(CATEGORY_KEY, key(category)));
+        IndexSearcher searcher = acquire();
+        try {
+            int count = searcher.count(query);
+            if(count == 0)
+                return new ArrayList<>();
+            TopDocs top = searcher.search(query, count, new Sort(new SortField(ID_ORDER, SortField.Type.LONG)));
+            StoredFields storedFields = searcher.storedFields();
+            List<Question> questions = new ArrayList<>(top.scoreDocs.length);
+            for(ScoreDoc scoreDoc: top.scoreDocs)
+                questions.add(toQuestion(storedFields.document(scoreDoc.doc)));
+            return questions;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    private Query parse(String text) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, TEXT_FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        return parser.parse(text);
+    }
+
+    private Map<String, Map<String, Integer>> facetCounts(IndexReader reader, FacetsCollector facetsCollector,
+                                                          int facetValues) throws IOException {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        SortedSetDocValuesReaderState state = facetState(reader);
+        if(state == null)
+            return counts;
+        Facets facets = new SortedSetDocValuesFacetCounts(state, facetsCollector);
+        for(String dimension: List.of(CATEGORY_FACET, DIFFICULTY_FACET)) {
+            Map<String, Integer> values = new LinkedHashMap<>();
+            FacetResult result = state.getOrdRange(dimension) != null
+                    ? facets.getTopChildren(facetValues, dimension) : null;
+            if(result != null) {
+                for(LabelAndValue labelAndValue: result.labelValues)
+                    values.put(labelAndValue.label, labelAndValue.value.intValue());
+            }
+            counts.put(dimension, values);
+        }
+        return counts;
+    }
+
+    /**
+     * Facet ordinals of the current reader, rebuilt only when a refresh opened a new one.
+     */
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState cached = facetState;
+        if(cached != null && cached.reader() == reader)
+            return cached.state();
+        SortedSetDocValuesReaderState state;
+        try {
+            state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+        } catch (IllegalArgumentException e) {
+            // no document carries a facet yet
+            state = null;
+        }
+        facetState = new FacetState(reader, state);
+        return state;
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if(value != null)
+            document.add(new TextField(field, value, Field.Store.YES));
+    }
+
+    private static void addFacet(Document document, String field, String keyField, String dimension, String value) {
+        if(value == null)
+            return;
+        document.add(new StoredField(field, value));
+        document.add(new StringField(keyField, key(value), Field.Store.NO));
+        if(!value.isEmpty())
+            document.add(new SortedSetDocValuesFacetField(dimension, value));
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Question toQuestion(Document document) {
+        Question question = new Question();
+        question.setId(Integer.valueOf(document.get(ID)));
+        question.setQuestionTitle(document.get(TITLE));
+        question.setOption1(document.get(OPTIONS[0]));
+        question.setOption2(document.get(OPTIONS[1]));
+        question.setOption3(document.get(OPTIONS[2]));
+        question.setOption4(document.get(OPTIONS[3]));
+        question.setCategory(document.get(CATEGORY));
+        question.setDifficultyLevel(document.get(DIFFICULTY));
+        question.setRightAnswer(document.get(RIGHT_ANSWER));
+        String updatedAt = document.get(UPDATED_AT);
+        if(updatedAt != null)
+            question.setUpdatedAt(Instant.parse(updatedAt));
+        return question;
+    }
+}
@@ -0,0 +1,116 @@
+package com.dmaddi.questionservice.ingest;
+
+import com.dmaddi.questionservice.model.Question;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV with a header row naming the Question properties, e.g.
+ * {@code category,difficultyLevel,questionTitle,option1,option2,option3,option4,rightAnswer}.
+ * Quoted fields may contain commas, doubled quotes and line breaks. Rows are numbered by the
+ * line they start on, so a record spanning several lines does not shift the numbers after it.
+ */
+public class CsvRowReader implements QuestionRowReader {
+
+    private final BufferedReader reader;
+    private final List<String> header;
+    private int line = 1;
+    private int recordStart;
+    private boolean endOfInput;
+
+    public CsvRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> columns = readRecord();
+        if(columns == null)
+            throw new IOException("CSV input is missing a header row");
+        this.header = columns.stream().map(String::trim).toList();
+    }
+
+    @Override
+    public QuestionRow next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if(fields == null)
+                return null;
+        } while(fields.size() == 1 && fields.get(0).isEmpty());
+
+        if(fields.size() != header.size())
+            return QuestionRow.failed(recordStart, "Expected " + header.size() + " columns but found " + fields.size());
+
+        Question question = new Question();
+        for(int i = 0; i < header.size(); i++) {
+            String value = fields.get(i);
+            switch(header.get(i)) {
+                case "difficultyLevel" -> question.setDifficultyLevel(value);
+                case "category" -> question.setCategory(value);
+                case "questionTitle" -> question.setQuestionTitle(value);
+                case "option1" -> question.setOption1(value);
+                case "option2" -> question.setOption2(value);
+                case "option3" -> question.setOption3(value);
+                case "option4" -> question.setOption4(value);
+                case "rightAnswer" -> question.setRightAnswer(value);
+                default -> {
+                    return QuestionRow.failed(recordStart, "Unknown column " + header.get(i));
+                }
+            }
+        }
+        return QuestionRow.of(recordStart, question);
+    }
+
+    @Override
+    public int position() {
+        return recordStart;
+    }
+
+    private List<String> readRecord() throws IOException {
+        if(endOfInput)
+            return null;
+
+        recordStart = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawAnything = false;
+        int c;
+        while((c = reader.read()) != -1) {
+            sawAnything = true;
+            if(c == '\n')
+                line++;
+            if(quoted) {
+                if(c == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if(following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if(following != -1)
+                            reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if(c == '"') {
+                quoted = true;
+            } else if(c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if(c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if(c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        endOfInput = true;
+        if(!sawAnything)
+            return null;
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,52 @@
+package com.dmaddi.questionservice.ingest;
+
+import com.dmaddi.questionservice.model.Question;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a JSON array element by element instead of binding the whole array up front.
+ * A malformed element ends the stream, since the parser cannot resynchronize after it.
+ */
+public class JsonArrayRowReader implements QuestionRowReader {
+
+    private final JsonParser parser;
+    private int rowNumber;
+    private boolean finished;
+
+    public JsonArrayRowReader(ObjectMapper objectMapper, InputStream inputStream) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(inputStream);
+        if(parser.nextToken() != JsonToken.START_ARRAY)
+            throw new JsonParseException(parser, "Expected a JSON array of questions");
+    }
+
+    @Override
+    public QuestionRow next() throws IOException {
+        if(finished)
+            return null;
+
+        rowNumber++;
+        try {
+            JsonToken token = parser.nextToken();
+            if(token == null || token == JsonToken.END_ARRAY) {
+                finished = true;
+                return null;
+            }
+            return QuestionRow.of(rowNumber, parser.readValueAs(Question.class));
+        } catch (JsonProcessingException e) {
+            finished = true;
+            return QuestionRow.failed(rowNumber, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public int position() {
+        return rowNumber;
+    }
+}
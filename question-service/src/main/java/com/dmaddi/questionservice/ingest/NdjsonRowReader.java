@@ -0,0 +1,45 @@
+package com.dmaddi.questionservice.ingest;
+
+import com.dmaddi.questionservice.model.Question;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads one question per line. Blank lines are skipped and a malformed line only fails that row.
+ */
+public class NdjsonRowReader implements QuestionRowReader {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedReader reader;
+    private int lineNumber;
+
+    public NdjsonRowReader(ObjectMapper objectMapper, BufferedReader reader) {
+        this.objectMapper = objectMapper;
+        this.reader = reader;
+    }
+
+    @Override
+    public QuestionRow next() throws IOException {
+        String line;
+        do {
+            lineNumber++;
+            line = reader.readLine();
+            if(line == null)
+                return null;
+        } while(line.isBlank());
+
+        try {
+            return QuestionRow.of(lineNumber, objectMapper.readValue(line, Question.class));
+        } catch (JsonProcessingException e) {
+            return QuestionRow.failed(lineNumber, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public int position() {
+        return lineNumber;
+    }
+}
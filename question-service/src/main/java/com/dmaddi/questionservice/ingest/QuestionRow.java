@@ -0,0 +1,24 @@
+package com.dmaddi.questionservice.ingest;
+
+import com.dmaddi.questionservice.model.Question;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One parsed input row: either a question or the reason it could not be read.
+ */
+@Getter
+@AllArgsConstructor
+public class QuestionRow {
+    private final int number;
+    private final Question question;
+    private final String error;
+
+    public static QuestionRow of(int number, Question question) {
+        return new QuestionRow(number, question, null);
+    }
+
+    public static QuestionRow failed(int number, String error) {
+        return new QuestionRow(number, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.dmaddi.questionservice.ingest;
+
+import java.io.IOException;
+
+public interface QuestionRowReader {
+
+    /**
+     * Returns the next row, or null once the input is exhausted.
+     */
+    QuestionRow next() throws IOException;
+
+    /**
+     * Number of the row being read, or last read, in the numbering its rows are reported under
+     * (line for CSV and NDJSON, element for a JSON array); a read error is reported against it.
+     */
+    int position();
+}
@@ -0,0 +1,24 @@
+package com.dmaddi.questionservice.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts every statement executed through the proxied DataSource into the {@link QueryCounter}
+ * of the current thread, including the JdbcTemplate reads (exports, streaming, answer keys) that
+ * bypass Hibernate. A JDBC batch counts once.
+ */
+public class QueryCountingListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryCounter.increment();
+    }
+}
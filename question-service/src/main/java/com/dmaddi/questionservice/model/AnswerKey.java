@@ -0,0 +1,6 @@
+package com.dmaddi.questionservice.model;
+
+public interface AnswerKey {
+    Integer getId();
+    String getRightAnswer();
+}
@@ -0,0 +1,13 @@
+package com.dmaddi.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnswerKeyEntry {
+    private Integer id;
+    private String rightAnswer;
+}
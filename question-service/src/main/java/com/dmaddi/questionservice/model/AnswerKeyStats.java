@@ -0,0 +1,17 @@
+package com.dmaddi.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnswerKeyStats {
+    private int size;
+    private int capacity;
+    private int distinctAnswers;
+    private long hits;
+    private long misses;
+    private boolean warmed;
+}
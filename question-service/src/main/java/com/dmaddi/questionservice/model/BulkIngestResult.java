@@ -0,0 +1,19 @@
+package com.dmaddi.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkIngestResult {
+    private int received;
+    private int inserted;
+    private int failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+}
@@ -0,0 +1,17 @@
+package com.dmaddi.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryStats {
+    private String category;
+    private int total;
+    // difficulty level -> number of questions; questions without one are counted under ""
+    private Map<String, Integer> byDifficulty;
+}
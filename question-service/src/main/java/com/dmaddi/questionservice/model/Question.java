@@ -1,13 +1,21 @@
 package com.dmaddi.questionservice.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 import lombok.Data;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
 @Data
 @Entity
+@Table(indexes = @Index(name = "question_updated_at_idx", columnList = "updated_at"))
 public class Question {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,4 +28,14 @@ public class Question {
     private String option3;
     private String option4;
     private String rightAnswer;
+
+    // Set when an existing question is changed (never on insert); feeds GET question/changes.
+    // Kept to the microseconds Postgres stores, so it reads back the same from every path.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
@@ -0,0 +1,19 @@
+package com.dmaddi.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Questions changed since a point in time, each with the time of its latest change, and the
+ * position (epoch millis) to ask from next time.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionChanges {
+    private long asOf;
+    private List<QuestionChange> changes;
+}
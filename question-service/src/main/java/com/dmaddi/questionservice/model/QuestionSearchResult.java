@@ -0,0 +1,20 @@
+package com.dmaddi.questionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionSearchResult {
+    private long totalHits;
+    private int page;
+    private int size;
+    private List<QuestionSearchHit> hits;
+    // facet dimension (category, difficultyLevel) -> value -> number of matching questions
+    private Map<String, Map<String, Integer>> facets;
+}
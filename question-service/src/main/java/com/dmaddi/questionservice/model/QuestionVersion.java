@@ -0,0 +1,8 @@
+package com.dmaddi.questionservice.model;
+
+import java.time.Instant;
+
+public interface QuestionVersion {
+    Integer getId();
+    Instant getUpdatedAt();
+}
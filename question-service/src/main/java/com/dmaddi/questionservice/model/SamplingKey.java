@@ -0,0 +1,7 @@
+package com.dmaddi.questionservice.model;
+
+public interface SamplingKey {
+    Integer getId();
+    String getCategory();
+    String getDifficultyLevel();
+}
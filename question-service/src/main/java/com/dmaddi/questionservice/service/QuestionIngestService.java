@@ -0,0 +1,190 @@
+package com.dmaddi.questionservice.service;
+
+import com.dmaddi.questionservice.event.QuestionsSavedEvent;
+import com.dmaddi.questionservice.ingest.CsvRowReader;
+import com.dmaddi.questionservice.ingest.JsonArrayRowReader;
+import com.dmaddi.questionservice.ingest.NdjsonRowReader;
+import com.dmaddi.questionservice.ingest.QuestionRow;
+import com.dmaddi.questionservice.ingest.QuestionRowReader;
+import com.dmaddi.questionservice.model.BulkIngestResult;
+import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.model.RowError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk question loading. Rows are parsed and validated one at a time from the request stream and
+ * written in JDBC batches, each in its own transaction. A batch that fails in the database is
+ * retried row by row so a single bad row is reported instead of aborting the upload.
+ */
+@Slf4j
+@Service
+public class QuestionIngestService {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private static final String INSERT_QUESTION = "INSERT INTO question (difficulty_level, category, question_title, " +
+            "option1, option2, option3, option4, right_answer) VALUES (:difficultyLevel, :category, :questionTitle, " +
+            ":option1, :option2, :option3, :option4, :rightAnswer)";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${question.ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${question.ingest.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ResponseEntity<BulkIngestResult> ingest(String contentType, InputStream body) {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        List<QuestionRow> batch = new ArrayList<>(batchSize);
+        QuestionRowReader reader = null;
+        try {
+            reader = openReader(MediaType.parseMediaType(contentType), body);
+            QuestionRow row;
+            while((row = reader.next()) != null) {
+                progress.received++;
+                String error = row.getError() != null ? row.getError() : validate(row.getQuestion());
+                if(error != null) {
+                    progress.fail(row.getNumber(), error);
+                    continue;
+                }
+                batch.add(row);
+                if(batch.size() == batchSize) {
+                    writeBatch(batch, progress);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            // the row being read counts as received and failed, so received == inserted + failed
+            // numbered like the reader numbers its rows; a reader that could not open failed on the first row
+            progress.received++;
+            progress.fail(reader == null ? 1 : reader.position(), "Could not read input: " + e.getMessage());
+        }
+        // rows parsed before a read error are written like any other batch
+        writeBatch(batch, progress);
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        double rowsPerSecond = progress.inserted * 1_000_000_000d / elapsedNanos;
+        log.info("Bulk ingest received {} rows, inserted {}, failed {} at {} rows/sec",
+                progress.received, progress.inserted, progress.failed, Math.round(rowsPerSecond));
+
+        BulkIngestResult result = new BulkIngestResult(progress.received, progress.inserted, progress.failed,
+                elapsedNanos / 1_000_000, rowsPerSecond, progress.errors);
+        HttpStatus status = progress.inserted > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return new ResponseEntity<>(result, status);
+    }
+
+    private QuestionRowReader openReader(MediaType contentType, InputStream body) throws IOException {
+        if(NDJSON.isCompatibleWith(contentType))
+            return new NdjsonRowReader(objectMapper, new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        if(CSV.isCompatibleWith(contentType))
+            return new CsvRowReader(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        return new JsonArrayRowReader(objectMapper, body);
+    }
+
+    private static String validate(Question question) {
+        if(question == null)
+            return "Row is empty";
+        if(isBlank(question.getQuestionTitle()))
+            return "questionTitle is required";
+        if(isBlank(question.getCategory()))
+            return "category is required";
+        if(isBlank(question.getRightAnswer()))
+            return "rightAnswer is required";
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private void writeBatch(List<QuestionRow> batch, Progress progress) {
+        if(batch.isEmpty())
+            return;
+        try {
+            insert(batch);
+            progress.inserted += batch.size();
+        } catch (DataAccessException e) {
+            log.warn("Batch of {} questions failed, retrying row by row: {}", batch.size(), e.getMostSpecificCause().getMessage());
+            for(QuestionRow row: batch) {
+                try {
+                    insert(List.of(row));
+                    progress.inserted++;
+                } catch (DataAccessException rowFailure) {
+                    progress.fail(row.getNumber(), rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<QuestionRow> rows) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            SqlParameterSource[] parameters = new SqlParameterSource[rows.size()];
+            for(int i = 0; i < rows.size(); i++)
+                parameters[i] = new BeanPropertySqlParameterSource(rows.get(i).getQuestion());
+
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(INSERT_QUESTION, parameters, keys, new String[]{"id"});
+
+            List<Map<String, Object>> generated = keys.getKeyList();
+            List<Question> saved = new ArrayList<>(rows.size());
+            for(int i = 0; i < rows.size(); i++) {
+                Question question = rows.get(i).getQuestion();
+                question.setId(((Number) generated.get(i).get("id")).intValue());
+                saved.add(question);
+            }
+            eventPublisher.publishEvent(new QuestionsSavedEvent(saved));
+        });
+    }
+
+    private class Progress {
+        private int received;
+        private int inserted;
+        private int failed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void fail(int row, String message) {
+            failed++;
+            if(errors.size() < maxReportedErrors)
+                errors.add(new RowError(row, message));
+        }
+    }
+}
@@ -1,24 +1,103 @@
 package com.dmaddi.questionservice.service;
 
 import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.dao.QuestionStreamDao;
+import com.dmaddi.questionservice.event.QuestionsSavedEvent;
+import com.dmaddi.questionservice.index.AnswerKeyIndex;
+import com.dmaddi.questionservice.index.QuestionSampler;
+import com.dmaddi.questionservice.index.QuestionSearchIndex;
+import com.dmaddi.questionservice.model.AnswerKeyEntry;
+import com.dmaddi.questionservice.model.AnswerKeyStats;
+import com.dmaddi.questionservice.model.CategoryStats;
 import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.model.QuestionChange;
+import com.dmaddi.questionservice.model.QuestionChanges;
+import com.dmaddi.questionservice.model.QuestionSearchResult;
+import com.dmaddi.questionservice.model.QuestionSelection;
 import com.dmaddi.questionservice.model.QuestionWrapper;
 import com.dmaddi.questionservice.model.Response;
+import com.dmaddi.questionservice.model.ScoreResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class QuestionService {
 
+    public static final String MISSING_IDS_HEADER = "X-Missing-Question-Ids";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private QuestionDao questionDao;
 
+    @Autowired
+    private QuestionStreamDao questionStreamDao;
+
+    @Autowired
+    private ScoringService scoringService;
+
+    @Autowired
+    private AnswerKeyIndex answerKeyIndex;
+
+    @Autowired
+    private QuestionSampler questionSampler;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${question.lookup.batch-size:500}")
+    private int lookupBatchSize;
+
+    @Value("${question.changes.overlap:1m}")
+    private Duration changesOverlap;
+
+    @Value("${question.changes.max-page-size:1000}")
+    private int maxChangesPageSize;
+
+    @Value("${question.export.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${question.search.max-page-size:100}")
+    private int maxSearchPageSize;
+
+    @Value("${question.search.max-results:1000}")
+    private int maxSearchResults;
+
+    @Value("${question.search.max-facet-values:50}")
+    private int maxFacetValues;
+
+    @Value("${question.export.fetch-size:500}")
+    private int streamFlushRows;
+
     public ResponseEntity<List<Question>> getAllQuestions(){
         try {
             return new ResponseEntity<>(questionDao.findAll(), HttpStatus.OK);
@@ -28,62 +107,290 @@ public class QuestionService {
         return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
     }
 
-    public ResponseEntity<List<Question>> getQuestionsByCategory(String category) {
-     /* Convert string to title case
-        char[] arr = category.toCharArray();
-        arr[0] = Character.toTitleCase(arr[0]);
-        String titleCaseCategory = new String(arr);
-        System.out.println(titleCaseCategory);
+    /**
+     * Keyset page of questions ordered by id, the category matched ignoring case. When the page is
+     * full, the last id is returned in the X-Next-Cursor header and is passed back as afterId to
+     * read the next page.
+     */
+    public ResponseEntity<List<Question>> getQuestionsPage(String category, int afterId, int limit) {
+        if(limit <= 0 || limit > maxPageSize)
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
+        List<Question> page = category == null
+                ? questionDao.findByIdGreaterThanOrderById(afterId, Limit.of(limit))
+                : questionDao.findByCategoryIgnoreCaseAndIdGreaterThanOrderById(category, afterId, Limit.of(limit));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(page.size() == limit)
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        return response.body(page);
+    }
+
+    /**
+     * Streams questions as newline-delimited JSON straight from the JDBC cursor, so memory use
+     * does not depend on the size of the table.
      */
+    public ResponseEntity<StreamingResponseBody> streamQuestions(String category) {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            int[] rows = {0};
+            Consumer<Question> writer = question -> {
+                try {
+                    generator.writeObject(question);
+                    generator.writeRaw('\n');
+                    if(++rows[0] % streamFlushRows == 0)
+                        generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            if(category == null)
+                questionStreamDao.streamAll(writer);
+            else
+                questionStreamDao.streamByCategory(category, writer);
+            generator.flush();
+        };
 
-        return new ResponseEntity<>(questionDao.findByCategory(category),HttpStatus.OK);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Questions of the category, ignoring case, served from the search index once it is warm.
+     */
+    public ResponseEntity<List<Question>> getQuestionsByCategory(String category) {
+        List<Question> questions = questionSearchIndex.isWarmed()
+                ? questionSearchIndex.findByCategory(category)
+                : questionDao.findByCategoryIgnoreCaseOrderById(category);
+        return new ResponseEntity<>(questions,HttpStatus.OK);
+    }
+
+    /**
+     * Ranked, faceted full-text search over question titles and options. Pages are limited to
+     * question.search.max-page-size hits and may not reach past question.search.max-results.
+     */
+    public ResponseEntity<QuestionSearchResult> searchQuestions(String text, String category, String difficultyLevel,
+                                                                int page, int size) {
+        if(page < 0 || size <= 0 || size > maxSearchPageSize || (long) (page + 1) * size > maxSearchResults)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        if(!questionSearchIndex.isWarmed())
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(questionSearchIndex.search(text, category, difficultyLevel, page, size, maxFacetValues),
+                HttpStatus.OK);
     }
 
+    @Transactional
     public ResponseEntity<String> addQuestion(Question question) {
         if(question.getQuestionTitle().isEmpty())
             return new ResponseEntity<>("failure", HttpStatus.NOT_ACCEPTABLE);
 
         else{
-            questionDao.save(question);
+            Question saved = questionDao.save(question);
+            eventPublisher.publishEvent(new QuestionsSavedEvent(List.of(saved)));
             return new ResponseEntity<>("success", HttpStatus.CREATED);
         }
     }
 
-    public ResponseEntity<List<Integer>> getQuestionsForQuiz(String categoryName, Integer numQuestions) {
-        List<Integer> questions = questionDao.findRandomQuestionsByCategory(categoryName, numQuestions);
+    /**
+     * Replaces the content of an existing question. Stamps updatedAt, so quiz-service sees the
+     * change through {@link #getChanges} and drops the answer keys of quizzes that use it.
+     */
+    @Transactional
+    public ResponseEntity<String> updateQuestion(Integer id, Question question) {
+        Optional<Question> existing = questionDao.findById(id);
+        if(existing.isEmpty())
+            return new ResponseEntity<>("not found", HttpStatus.NOT_FOUND);
+        if(question.getQuestionTitle() == null || question.getQuestionTitle().isEmpty())
+            return new ResponseEntity<>("failure", HttpStatus.NOT_ACCEPTABLE);
+
+        Question stored = existing.get();
+        stored.setDifficultyLevel(question.getDifficultyLevel());
+        stored.setCategory(question.getCategory());
+        stored.setQuestionTitle(question.getQuestionTitle());
+        stored.setOption1(question.getOption1());
+        stored.setOption2(question.getOption2());
+        stored.setOption3(question.getOption3());
+        stored.setOption4(question.getOption4());
+        stored.setRightAnswer(question.getRightAnswer());
+        Question saved = questionDao.saveAndFlush(stored);
+        eventPublisher.publishEvent(new QuestionsSavedEvent(List.of(saved)));
+        return new ResponseEntity<>("success", HttpStatus.OK);
+    }
+
+    public ResponseEntity<List<Integer>> getQuestionsForQuiz(String categoryName, Integer numQuestions, boolean stratified) {
+        // Until the sampler has loaded the id arrays, fall back to sampling in Postgres.
+        List<Integer> questions = questionSampler.isWarmed()
+                ? questionSampler.sample(categoryName, numQuestions, stratified)
+                : questionDao.findRandomQuestionsByCategory(categoryName, numQuestions);
 
         return new ResponseEntity<>(questions, HttpStatus.OK);
     }
 
-    public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(List<Integer> questionIds) {
-        List<QuestionWrapper> wrappers = new ArrayList<>();
-        List<Question> questions = new ArrayList<>();
+    /**
+     * Picks the questions of a new quiz, either numQuestions from the whole category or an exact
+     * count per difficulty level. The request is checked against the sampler's live counts
+     * before anything is drawn: NOT_FOUND for an empty category, CONFLICT when it does not hold
+     * enough questions, BAD_REQUEST when the counts are not positive or do not add up.
+     */
+    public ResponseEntity<List<Integer>> selectQuestions(QuestionSelection selection) {
+        Map<String, Integer> difficulties = selection.getDifficulties() == null ? Map.of() : selection.getDifficulties();
+        int wanted = 0;
+        for(Integer count: difficulties.values()) {
+            if(count == null || count <= 0)
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            wanted += count;
+        }
+        if(difficulties.isEmpty())
+            wanted = selection.getNumQuestions() == null ? 0 : selection.getNumQuestions();
+        if(selection.getCategory() == null || wanted <= 0
+                || (selection.getNumQuestions() != null && selection.getNumQuestions() != wanted))
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+
+        List<Integer> questions;
+        if(questionSampler.isWarmed()) {
+            Optional<CategoryStats> stats = questionSampler.stats(selection.getCategory());
+            if(stats.isEmpty())
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            if(stats.get().getTotal() < wanted)
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            questions = difficulties.isEmpty()
+                    ? questionSampler.sample(selection.getCategory(), wanted, selection.isStratified())
+                    : questionSampler.sample(selection.getCategory(), difficulties);
+        } else if(difficulties.isEmpty()) {
+            questions = questionDao.findRandomQuestionsByCategory(selection.getCategory(), wanted);
+        } else {
+            questions = new ArrayList<>(wanted);
+            for(Map.Entry<String, Integer> entry: difficulties.entrySet())
+                questions.addAll(questionDao.findRandomQuestionsByCategoryAndDifficultyLevel(selection.getCategory(),
+                        entry.getKey(), entry.getValue()));
+        }
+
+        if(questions == null || questions.size() < wanted)
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        return new ResponseEntity<>(questions, HttpStatus.OK);
+    }
+
+    /**
+     * Live question counts per category and difficulty level, straight from the sampler's pools.
+     */
+    public ResponseEntity<List<CategoryStats>> getCategoryStats() {
+        if(!questionSampler.isWarmed())
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(questionSampler.stats(), HttpStatus.OK);
+    }
+
+    public ResponseEntity<CategoryStats> getCategoryStats(String category) {
+        if(!questionSampler.isWarmed())
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return questionSampler.stats(category)
+                .map(stats -> new ResponseEntity<>(stats, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
 
+    public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(List<Integer> questionIds) {
         if(questionIds.isEmpty())
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
 
-        for(Integer id: questionIds){
-            questions.add(questionDao.findById(id).get());
+        // One IN query per chunk instead of one findById per id; duplicates are fetched once.
+        List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(questionIds));
+        distinctIds.remove(null);
+        Map<Integer, QuestionWrapper> wrappersById = new HashMap<>(distinctIds.size() * 2);
+        for(List<Integer> chunk: partition(distinctIds, lookupBatchSize)){
+            for(QuestionWrapper wrapper: questionDao.findWrappersByIdIn(chunk))
+                wrappersById.put(wrapper.getId(), wrapper);
         }
 
-        for(Question q: questions){
-            wrappers.add(new QuestionWrapper(q.getId(), q.getQuestionTitle(), q.getOption1(), q.getOption2(), q.getOption3(), q.getOption4()));
+        List<QuestionWrapper> wrappers = new ArrayList<>(questionIds.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for(Integer id: questionIds){
+            QuestionWrapper wrapper = id == null ? null : wrappersById.get(id);
+            if(wrapper == null)
+                missingIds.add(id);
+            else
+                wrappers.add(wrapper);
         }
 
+        if(!missingIds.isEmpty())
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .header(MISSING_IDS_HEADER, missingIds.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                    .build();
+
         return new ResponseEntity<>(wrappers, HttpStatus.OK);
     }
 
     public ResponseEntity<Integer> getScore(List<Response> responses) {
-        int rightAnswers = 0;
-
-        for(Response response: responses) {
-            if(response.getId() <= 0)
-                return new ResponseEntity<>(0, HttpStatus.BAD_REQUEST);
-            Question question = questionDao.findById(response.getId()).get();
-            if(response.getResponse().equals(question.getRightAnswer()))
-                rightAnswers++;
+        return scoringService.score(responses)
+                .map(result -> new ResponseEntity<>(result.getScore(), HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(0, HttpStatus.BAD_REQUEST));
+    }
+
+    /**
+     * Scores a batch of submissions in one pass. The result has one score per submission, in
+     * order, with null for a submission that was rejected.
+     */
+    public ResponseEntity<List<Integer>> getScores(List<List<Response>> submissions) {
+        List<Integer> scores = new ArrayList<>(submissions.size());
+        for(Optional<ScoreResult> result: scoringService.scoreAll(submissions))
+            scores.add(result.map(ScoreResult::getScore).orElse(null));
+        return new ResponseEntity<>(scores, HttpStatus.OK);
+    }
+
+    public ResponseEntity<ScoreResult> getScoreDetails(List<Response> responses) {
+        return scoringService.score(responses)
+                .map(result -> new ResponseEntity<>(result, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+    }
+
+    /**
+     * Right answers of the given questions, in request order, for building a quiz's answer key.
+     * Unknown ids give 404 with the ids in the X-Missing-Question-Ids header.
+     */
+    public ResponseEntity<List<AnswerKeyEntry>> getAnswerKey(List<Integer> questionIds) {
+        Map<Integer, String> answers = scoringService.answers(new LinkedHashSet<>(questionIds));
+        List<AnswerKeyEntry> entries = new ArrayList<>(questionIds.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for(Integer id: questionIds) {
+            String answer = id == null ? null : answers.get(id);
+            if(answer == null)
+                missingIds.add(id);
+            else
+                entries.add(new AnswerKeyEntry(id, answer));
         }
+        if(!missingIds.isEmpty())
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .header(MISSING_IDS_HEADER, missingIds.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                    .build();
+        return new ResponseEntity<>(entries, HttpStatus.OK);
+    }
+
+    /**
+     * Questions changed after since (epoch millis), a page of at most limit ids above afterId in
+     * id order; a full page means the caller should ask again from its last id. The window
+     * reaches question.changes.overlap further back, so changes committed late with an earlier
+     * timestamp are not missed; callers see a change again until it leaves the window, and can
+     * tell a repeat from a new change by its updatedAt.
+     */
+    public ResponseEntity<QuestionChanges> getChanges(long since, int afterId, int limit) {
+        if(limit <= 0 || limit > maxChangesPageSize)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        long asOf = System.currentTimeMillis();
+        List<QuestionChange> changes = questionDao.findVersionsUpdatedAfterInIdOrder(
+                        Instant.ofEpochMilli(since).minus(changesOverlap), afterId, Limit.of(limit)).stream()
+                .map(version -> new QuestionChange(version.getId(), version.getUpdatedAt()))
+                .toList();
+        return new ResponseEntity<>(new QuestionChanges(asOf, changes), HttpStatus.OK);
+    }
+
+    public ResponseEntity<AnswerKeyStats> getAnswerKeyStats() {
+        return new ResponseEntity<>(answerKeyIndex.stats(), HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(rightAnswers, HttpStatus.OK);
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>((items.size() + size - 1) / size);
+        for(int from = 0; from < items.size(); from += size)
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        return chunks;
     }
 }
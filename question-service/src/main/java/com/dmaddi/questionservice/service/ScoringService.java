@@ -0,0 +1,134 @@
+package com.dmaddi.questionservice.service;
+
+import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.index.AnswerKeyIndex;
+import com.dmaddi.questionservice.model.AnswerKey;
+import com.dmaddi.questionservice.model.QuestionResult;
+import com.dmaddi.questionservice.model.Response;
+import com.dmaddi.questionservice.model.ScoreResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class ScoringService {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerKeyIndex answerKeyIndex;
+
+    @Value("${question.lookup.batch-size:500}")
+    private int lookupBatchSize;
+
+    /**
+     * Scores a submission against the answer key index, falling back to a single (id, rightAnswer)
+     * lookup for ids the index has not seen yet.
+     * Returns empty when the submission is rejected: non-positive, duplicate or unknown ids.
+     */
+    public Optional<ScoreResult> score(List<Response> responses) {
+        return scoreAll(List.of(responses)).get(0);
+    }
+
+    /**
+     * Scores many submissions at once. Answer keys missing from the index are fetched for all of
+     * them together, so a batch costs at most one lookup per lookup-batch-size distinct ids.
+     * Each element of the result is empty if that submission alone was rejected.
+     */
+    public List<Optional<ScoreResult>> scoreAll(List<List<Response>> submissions) {
+        List<Set<Integer>> submissionIds = new ArrayList<>(submissions.size());
+        Map<Integer, String> answers = new HashMap<>();
+        Set<Integer> missingIds = new HashSet<>();
+        for(List<Response> responses: submissions) {
+            Set<Integer> ids = validIds(responses);
+            submissionIds.add(ids);
+            if(ids == null)
+                continue;
+            for(Integer id: ids) {
+                if(answers.containsKey(id) || missingIds.contains(id))
+                    continue;
+                String answer = answerKeyIndex.get(id);
+                if(answer == null)
+                    missingIds.add(id);
+                else
+                    answers.put(id, answer);
+            }
+        }
+        if(!missingIds.isEmpty())
+            loadAnswers(new ArrayList<>(missingIds), answers);
+
+        List<Optional<ScoreResult>> results = new ArrayList<>(submissions.size());
+        for(int i = 0; i < submissions.size(); i++) {
+            Set<Integer> ids = submissionIds.get(i);
+            results.add(ids != null && answers.keySet().containsAll(ids)
+                    ? Optional.of(score(submissions.get(i), answers))
+                    : Optional.empty());
+        }
+        return results;
+    }
+
+    /**
+     * Right answers of the given questions, from the index or else the database. Unknown ids are
+     * left out; a question without an answer maps to the empty string.
+     */
+    public Map<Integer, String> answers(Collection<Integer> ids) {
+        Map<Integer, String> answers = new HashMap<>(ids.size() * 2);
+        List<Integer> missingIds = new ArrayList<>();
+        for(Integer id: ids) {
+            String answer = answerKeyIndex.get(id);
+            if(answer == null)
+                missingIds.add(id);
+            else
+                answers.put(id, answer);
+        }
+        if(!missingIds.isEmpty())
+            loadAnswers(missingIds, answers);
+        return answers;
+    }
+
+    private static Set<Integer> validIds(List<Response> responses) {
+        if(responses == null)
+            return null;
+        Set<Integer> ids = new HashSet<>(responses.size() * 2);
+        for(Response response: responses) {
+            if(response == null || response.getId() == null || response.getId() <= 0 || !ids.add(response.getId()))
+                return null;
+        }
+        return ids;
+    }
+
+    private static ScoreResult score(List<Response> responses, Map<Integer, String> answers) {
+        int rightAnswers = 0;
+        List<QuestionResult> results = new ArrayList<>(responses.size());
+        for(Response response: responses) {
+            String answer = response.getResponse();
+            String expected = answers.get(response.getId());
+            boolean correct = answer != null && !expected.isEmpty() && answer.equals(expected);
+            if(correct)
+                rightAnswers++;
+            results.add(new QuestionResult(response.getId(), correct));
+        }
+        return new ScoreResult(rightAnswers, results);
+    }
+
+    private void loadAnswers(List<Integer> ids, Map<Integer, String> answers) {
+        for(int from = 0; from < ids.size(); from += lookupBatchSize) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + lookupBatchSize, ids.size()));
+            for(AnswerKey key: questionDao.findAnswerKeysByIdIn(chunk)) {
+                // If the question was saved after this read, the index already holds the newer answer.
+                String answer = answerKeyIndex.putIfAbsent(key.getId(), key.getRightAnswer());
+                answers.put(key.getId(), answer);
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.dmaddi.questionservice.controller;
 
 
+import com.dmaddi.questionservice.model.BulkIngestResult;
 import com.dmaddi.questionservice.model.Question;
 import com.dmaddi.questionservice.model.QuestionWrapper;
+import com.dmaddi.questionservice.model.RowError;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.*;
@@ -17,7 +19,7 @@ import java.util.Arrays;
 import java.util.List;
 
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "grpc.server.port=0")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class QuestionControllerIntegrationTest {
@@ -309,4 +311,86 @@ public class QuestionControllerIntegrationTest {
         Assertions.assertEquals(HttpStatus.FORBIDDEN, responseEntity.getStatusCode(), "Should return Ok 200 code");
         Assertions.assertNull(responseEntity.getBody(), "Should return null");
     }
+
+    @Test
+    @DisplayName("Gets the question wrappers in request order, repeating duplicated ids")
+    @Order(10)
+    void testGetQuestionsFromId_whenIdsAreUnorderedAndRepeated_keepsRequestOrder(){
+        //  Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Accept", "application/json");
+
+        List<Integer> questionIntegerIds = new ArrayList<>(Arrays.asList(14, 7, 14, 13));
+        HttpEntity requestEntity = new HttpEntity(questionIntegerIds, headers);
+
+        // Act
+        ResponseEntity<List<QuestionWrapper>> responseEntity = testRestTemplate.exchange(
+                "/question/getQuestions",
+                HttpMethod.POST,
+                requestEntity,
+                new ParameterizedTypeReference<List<QuestionWrapper>>(){});
+
+        List<Integer> receivedIds = responseEntity.getBody().stream().map(QuestionWrapper::getId).toList();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode(), "Should return Ok 200 code");
+        Assertions.assertEquals(questionIntegerIds, receivedIds, "Should return one wrapper per requested id, in request order");
+    }
+
+    @Test
+    @DisplayName("Gets a Not found response naming the unknown ids")
+    @Order(11)
+    void testGetQuestionsFromId_whenSomeIdsAreUnknown_returnsNotFoundWithMissingIds(){
+        //  Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Accept", "application/json");
+
+        List<Integer> questionIntegerIds = new ArrayList<>(Arrays.asList(7, 999999, 14, -3));
+        HttpEntity requestEntity = new HttpEntity(questionIntegerIds, headers);
+
+        // Act
+        ResponseEntity<List<QuestionWrapper>> responseEntity = testRestTemplate.exchange(
+                "/question/getQuestions",
+                HttpMethod.POST,
+                requestEntity,
+                new ParameterizedTypeReference<List<QuestionWrapper>>(){});
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode(), "Should return Not found 404 code");
+        Assertions.assertEquals("999999,-3", responseEntity.getHeaders().getFirst("X-Missing-Question-Ids"),
+                "Should list the unknown ids in request order");
+        Assertions.assertNull(responseEntity.getBody(), "Should return no questions");
+    }
+
+    @Test
+    @DisplayName("Bulk ingest inserts the good rows of a partially bad CSV and reports the bad ones by line")
+    @Order(12)
+    void testAddQuestions_whenCsvHasBadRows_insertsTheRestAndReportsLines(){
+        // Arrange
+        String csv = "category,difficultyLevel,questionTitle,option1,option2,option3,option4,rightAnswer\n"
+                + "IngestTest,Easy,What is 1 + 1?,1,2,3,4,2\n"
+                + "IngestTest,Easy,,1,2,3,4,2\n"
+                + "IngestTest,Easy,\"Which line\nis this on?\",4,5,6,7,4\n"
+                + "IngestTest,Easy,Missing options\n";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
+
+        HttpEntity<String> request = new HttpEntity<>(csv, headers);
+
+        // Act
+        ResponseEntity<BulkIngestResult> responseEntity =
+                testRestTemplate.postForEntity("/question/bulk", request, BulkIngestResult.class);
+
+        BulkIngestResult result = responseEntity.getBody();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode(), "Should return 201 Created when any row is inserted");
+        Assertions.assertEquals(4, result.getReceived(), "Should read all four rows");
+        Assertions.assertEquals(2, result.getInserted(), "Should insert the two valid rows");
+        Assertions.assertEquals(2, result.getFailed(), "Should fail the two invalid rows");
+        Assertions.assertEquals(List.of(3, 6), result.getErrors().stream().map(RowError::getRow).toList(),
+                "Should report the lines the bad rows start on");
+    }
 }
@@ -2,6 +2,7 @@ package com.dmaddi.questionservice.controller;
 
 
 import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.service.QuestionIngestService;
 import com.dmaddi.questionservice.service.QuestionService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -37,6 +38,9 @@ public class QuestionControllerWebLayerTest {
     @MockBean
     private QuestionService questionService;
 
+    @MockBean
+    private QuestionIngestService questionIngestService;
+
     private Question question;
 
 
@@ -0,0 +1,158 @@
+package com.dmaddi.questionservice.index;
+
+import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.event.QuestionsSavedEvent;
+import com.dmaddi.questionservice.model.AnswerKey;
+import com.dmaddi.questionservice.model.AnswerKeyStats;
+import com.dmaddi.questionservice.model.Question;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class AnswerKeyIndexTest {
+
+    private AnswerKeyIndex answerKeyIndex;
+
+    @BeforeEach
+    void createIndex() {
+        answerKeyIndex = new AnswerKeyIndex();
+    }
+
+    @Test
+    @DisplayName("Indexed answers are returned and unknown ids miss")
+    void testGet_whenIdsAreIndexed_returnsAnswers() {
+        // Arrange
+        answerKeyIndex.put(7, "32 and 64");
+        answerKeyIndex.put(13, "Both A and C");
+
+        // Act
+        String known = answerKeyIndex.get(7);
+        String unknown = answerKeyIndex.get(8);
+
+        // Assert
+        Assertions.assertEquals("32 and 64", known, "Should return the indexed answer");
+        Assertions.assertNull(unknown, "Should return null for an id that was never indexed");
+        AnswerKeyStats stats = answerKeyIndex.stats();
+        Assertions.assertEquals(1, stats.getHits(), "Should count one hit");
+        Assertions.assertEquals(1, stats.getMisses(), "Should count one miss");
+    }
+
+    @Test
+    @DisplayName("Index keeps every entry while growing and shares equal answers")
+    void testPut_whenManyIdsAreIndexed_growsAndInternsAnswers() {
+        // Arrange
+        int count = 100_000;
+
+        // Act
+        for(int id = 1; id <= count; id++)
+            answerKeyIndex.put(id, new String(id % 2 == 0 ? "True" : "False"));
+        answerKeyIndex.put(42, "Changed");
+
+        // Assert
+        Assertions.assertEquals(count, answerKeyIndex.size(), "Should hold one entry per id");
+        Assertions.assertEquals("Changed", answerKeyIndex.get(42), "Should overwrite an existing answer");
+        Assertions.assertSame(answerKeyIndex.get(2), answerKeyIndex.get(4), "Equal answers should be interned");
+        Assertions.assertEquals(3, answerKeyIndex.stats().getDistinctAnswers(), "Should intern three distinct answers");
+    }
+
+    @Test
+    @DisplayName("A fill from the database does not overwrite an answer saved since")
+    void testPutIfAbsent_whenIdWasSavedMeanwhile_keepsSavedAnswer() {
+        // Arrange
+        answerKeyIndex.put(7, "New answer");
+
+        // Act
+        String filled = answerKeyIndex.putIfAbsent(7, "Old answer");
+        String added = answerKeyIndex.putIfAbsent(8, "Other answer");
+
+        // Assert
+        Assertions.assertEquals("New answer", filled, "Should return the answer already indexed");
+        Assertions.assertEquals("New answer", answerKeyIndex.get(7), "Should keep the saved answer");
+        Assertions.assertEquals("Other answer", added, "Should index an id that had no answer");
+    }
+
+    @Test
+    @DisplayName("Removed ids miss while every other entry stays reachable")
+    void testRemove_whenEntriesShareProbeRuns_keepsOthersReachable() {
+        // Arrange
+        int count = 10_000;
+        for(int id = 1; id <= count; id++)
+            answerKeyIndex.put(id, "Answer " + id);
+
+        // Act
+        for(int id = 1; id <= count; id += 3)
+            answerKeyIndex.remove(id);
+        answerKeyIndex.remove(count + 1);
+
+        // Assert
+        for(int id = 1; id <= count; id++) {
+            if(id % 3 == 1)
+                Assertions.assertNull(answerKeyIndex.get(id), "Should miss removed id " + id);
+            else
+                Assertions.assertEquals("Answer " + id, answerKeyIndex.get(id), "Should still find id " + id);
+        }
+        Assertions.assertEquals(count - 3334, answerKeyIndex.size());
+    }
+
+    @Test
+    @DisplayName("Warm-up does not overwrite questions saved while it was reading")
+    void testWarm_whenQuestionSavedDuringWarmUp_keepsSavedAnswer() {
+        // Arrange
+        QuestionDao questionDao = Mockito.mock(QuestionDao.class);
+        ReflectionTestUtils.setField(answerKeyIndex, "questionDao", questionDao);
+        Question saved = new Question();
+        saved.setId(7);
+        saved.setRightAnswer("New answer");
+        // the save commits after the warm-up read row 7, before it reaches the index
+        Mockito.when(questionDao.streamAllAnswerKeys()).thenReturn(Stream.of(7, 8).map(id -> {
+            if(id == 7)
+                answerKeyIndex.onQuestionsSaved(new QuestionsSavedEvent(List.of(saved)));
+            return answerKey(id, "Old answer");
+        }));
+
+        // Act
+        answerKeyIndex.warm();
+
+        // Assert
+        Assertions.assertEquals("New answer", answerKeyIndex.get(7), "Should keep the answer saved during warm-up");
+        Assertions.assertEquals("Old answer", answerKeyIndex.get(8), "Should index the other rows");
+        Assertions.assertTrue(answerKeyIndex.stats().isWarmed(), "Should be warmed");
+    }
+
+    @Test
+    @DisplayName("Answers no question uses any more are eventually dropped from the intern table")
+    void testPut_whenAnswersAreEditedRepeatedly_dropsUnusedAnswers() {
+        // Arrange
+        answerKeyIndex.put(1, "First");
+        answerKeyIndex.put(2, "Second");
+
+        // Act
+        for(int edit = 0; edit < 10; edit++)
+            answerKeyIndex.put(1, "Edit " + edit);
+
+        // Assert
+        Assertions.assertEquals("Edit 9", answerKeyIndex.get(1), "Should hold the last edit");
+        Assertions.assertTrue(answerKeyIndex.stats().getDistinctAnswers() <= 4,
+                "Should not keep every answer ever indexed");
+    }
+
+    private static AnswerKey answerKey(int id, String rightAnswer) {
+        return new AnswerKey() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public String getRightAnswer() {
+                return rightAnswer;
+            }
+        };
+    }
+}
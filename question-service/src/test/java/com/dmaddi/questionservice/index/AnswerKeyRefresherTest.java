@@ -0,0 +1,120 @@
+package com.dmaddi.questionservice.index;
+
+import com.dmaddi.questionservice.dao.QuestionDao;
+import com.dmaddi.questionservice.model.QuestionVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+public class AnswerKeyRefresherTest {
+
+    private static final Instant EDITED_AT = Instant.now();
+
+    private QuestionDao questionDao;
+    private AnswerKeyIndex answerKeyIndex;
+    private AnswerKeyRefresher answerKeyRefresher;
+
+    @BeforeEach
+    void createRefresher() {
+        questionDao = Mockito.mock(QuestionDao.class);
+        answerKeyIndex = new AnswerKeyIndex();
+        answerKeyIndex.put(7, "Old answer");
+        answerKeyIndex.put(13, "Both A and C");
+        answerKeyRefresher = new AnswerKeyRefresher();
+        ReflectionTestUtils.setField(answerKeyRefresher, "questionDao", questionDao);
+        ReflectionTestUtils.setField(answerKeyRefresher, "answerKeyIndex", answerKeyIndex);
+        ReflectionTestUtils.setField(answerKeyRefresher, "pageSize", 2);
+        ReflectionTestUtils.setField(answerKeyRefresher, "overlap", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(answerKeyRefresher, "init");
+    }
+
+    @Test
+    @DisplayName("A question edited through another instance is dropped from the index")
+    void testRefresh_whenQuestionWasEditedElsewhere_removesItsAnswer() {
+        // Arrange
+        Mockito.when(questionDao.findVersionsUpdatedAfter(any(), anyInt(), any())).thenReturn(List.of(version(7, EDITED_AT)));
+
+        // Act
+        int removed = answerKeyRefresher.refresh();
+
+        // Assert
+        Assertions.assertEquals(1, removed);
+        Assertions.assertNull(answerKeyIndex.get(7), "Should read the edited answer from the database next time");
+        Assertions.assertEquals("Both A and C", answerKeyIndex.get(13), "Should keep unchanged questions");
+    }
+
+    @Test
+    @DisplayName("A change seen again inside the overlap window is not applied twice")
+    void testRefresh_whenChangeIsRepeatedInOverlap_skipsIt() {
+        // Arrange
+        Mockito.when(questionDao.findVersionsUpdatedAfter(any(), anyInt(), any())).thenReturn(List.of(version(7, EDITED_AT)));
+        answerKeyRefresher.refresh();
+        answerKeyIndex.putIfAbsent(7, "New answer");
+
+        // Act
+        int removed = answerKeyRefresher.refresh();
+
+        // Assert
+        Assertions.assertEquals(0, removed);
+        Assertions.assertEquals("New answer", answerKeyIndex.get(7), "Should keep the answer read after the edit");
+    }
+
+    @Test
+    @DisplayName("A later edit of the same question is applied again")
+    void testRefresh_whenQuestionIsEditedAgain_removesItAgain() {
+        // Arrange
+        Mockito.when(questionDao.findVersionsUpdatedAfter(any(), anyInt(), any()))
+                .thenReturn(List.of(version(7, EDITED_AT)))
+                .thenReturn(List.of(version(7, EDITED_AT.plusSeconds(1))));
+        answerKeyRefresher.refresh();
+        answerKeyIndex.putIfAbsent(7, "New answer");
+
+        // Act
+        int removed = answerKeyRefresher.refresh();
+
+        // Assert
+        Assertions.assertEquals(1, removed);
+        Assertions.assertNull(answerKeyIndex.get(7));
+    }
+
+    @Test
+    @DisplayName("Changes are read page by page from the last (updated_at, id) seen")
+    void testRefresh_whenPageIsFull_readsNextPage() {
+        // Arrange
+        Mockito.when(questionDao.findVersionsUpdatedAfter(any(), anyInt(), any()))
+                .thenReturn(List.of(version(7, EDITED_AT), version(13, EDITED_AT)))
+                .thenReturn(List.of());
+
+        // Act
+        int removed = answerKeyRefresher.refresh();
+
+        // Assert
+        Assertions.assertEquals(2, removed);
+        Mockito.verify(questionDao).findVersionsUpdatedAfter(EDITED_AT, 13, Limit.of(2));
+    }
+
+    private static QuestionVersion version(int id, Instant updatedAt) {
+        return new QuestionVersion() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getUpdatedAt() {
+                return updatedAt;
+            }
+        };
+    }
+}
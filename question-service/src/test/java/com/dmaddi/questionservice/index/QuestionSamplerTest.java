@@ -0,0 +1,110 @@
+package com.dmaddi.questionservice.index;
+
+import com.dmaddi.questionservice.model.CategoryStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class QuestionSamplerTest {
+
+    private QuestionSampler questionSampler;
+
+    @BeforeEach
+    void fillSampler() {
+        questionSampler = new QuestionSampler();
+        for(int id = 1; id <= 1000; id++)
+            questionSampler.add(id, "Java", id <= 800 ? "Easy" : "Hard");
+        for(int id = 1001; id <= 1100; id++)
+            questionSampler.add(id, "Python", "Easy");
+    }
+
+    @Test
+    @DisplayName("Sampled ids are distinct and belong to the category")
+    void testSample_whenCategoryHasEnoughQuestions_returnsDistinctIds() {
+        // Act
+        List<Integer> ids = questionSampler.sample("Java", 50, false);
+
+        // Assert
+        Assertions.assertEquals(50, ids.size(), "Should return the requested number of ids");
+        Assertions.assertEquals(50, new HashSet<>(ids).size(), "Should not repeat ids");
+        Assertions.assertTrue(ids.stream().allMatch(id -> id >= 1 && id <= 1000), "Should only return Java ids");
+    }
+
+    @Test
+    @DisplayName("Requests larger than the category return every id once")
+    void testSample_whenNumQuestionsExceedsCategory_returnsWholeCategory() {
+        // Act
+        List<Integer> ids = questionSampler.sample("Python", 500, false);
+
+        // Assert
+        Assertions.assertEquals(100, new HashSet<>(ids).size(), "Should return all 100 Python ids");
+        Assertions.assertTrue(questionSampler.sample("Go", 5, false).isEmpty(), "Unknown category should be empty");
+    }
+
+    @Test
+    @DisplayName("Stratified samples follow the difficulty mix of the category")
+    void testSample_whenStratified_splitsByDifficulty() {
+        // Act
+        List<Integer> ids = questionSampler.sample("Java", 10, true);
+
+        // Assert
+        long hard = ids.stream().filter(id -> id > 800).count();
+        Assertions.assertEquals(10, ids.size(), "Should return the requested number of ids");
+        Assertions.assertEquals(2, hard, "20% of Java questions are Hard so 2 of 10 should be Hard");
+    }
+
+    @Test
+    @DisplayName("Mixed samples take exactly the requested count from each difficulty")
+    void testSample_whenDifficultiesAreGiven_drawsExactCounts() {
+        // Act
+        List<Integer> ids = questionSampler.sample("Java", Map.of("Easy", 3, "Hard", 2));
+        List<Integer> tooMany = questionSampler.sample("Java", Map.of("Hard", 201));
+
+        // Assert
+        Assertions.assertEquals(5, new HashSet<>(ids).size(), "Should return five distinct ids");
+        Assertions.assertEquals(2, ids.stream().filter(id -> id > 800).count(), "Should draw two Hard ids");
+        Assertions.assertNull(tooMany, "Should refuse a level that holds fewer questions than asked for");
+    }
+
+    @Test
+    @DisplayName("Stats follow a question that moves to another category and difficulty")
+    void testStats_whenQuestionIsMoved_updatesCounts() {
+        // Act
+        questionSampler.add(1, "Python", "Hard");
+        questionSampler.add(1, "Python", "Hard");
+
+        // Assert
+        CategoryStats java = questionSampler.stats("Java").orElseThrow();
+        CategoryStats python = questionSampler.stats("Python").orElseThrow();
+        Assertions.assertEquals(999, java.getTotal(), "Should remove the id from Java");
+        Assertions.assertEquals(799, java.getByDifficulty().get("Easy"), "Should remove the id from Java/Easy");
+        Assertions.assertEquals(101, python.getTotal(), "Should add the id to Python once");
+        Assertions.assertEquals(1, python.getByDifficulty().get("Hard"), "Should add the id to Python/Hard");
+        Assertions.assertTrue(questionSampler.stats("Go").isEmpty(), "Unknown category should have no stats");
+    }
+
+    @Test
+    @DisplayName("The warm-up does not move a question saved since back to its old placement")
+    void testAddIfAbsent_whenIdWasSavedMeanwhile_keepsSavedPlacement() {
+        // Arrange
+        questionSampler.add(1, "Python", "Hard");
+        questionSampler.add(2, null, null);
+
+        // Act
+        questionSampler.addIfAbsent(1, "Java", "Easy");
+        questionSampler.addIfAbsent(2, "Java", "Easy");
+        questionSampler.addIfAbsent(5000, "Go", "Easy");
+
+        // Assert
+        Assertions.assertEquals(1, questionSampler.stats("Python").orElseThrow().getByDifficulty().get("Hard"),
+                "Should keep the saved placement");
+        Assertions.assertEquals(998, questionSampler.stats("Java").orElseThrow().getTotal(),
+                "Should leave out both saved questions, including the one saved without a category");
+        Assertions.assertEquals(1, questionSampler.stats("Go").orElseThrow().getTotal(), "Should place an unknown id");
+    }
+}
@@ -0,0 +1,145 @@
+package com.dmaddi.questionservice.index;
+
+import com.dmaddi.questionservice.model.Question;
+import com.dmaddi.questionservice.model.QuestionSearchHit;
+import com.dmaddi.questionservice.model.QuestionSearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class QuestionSearchIndexTest {
+
+    private QuestionSearchIndex questionSearchIndex;
+
+    @BeforeEach
+    void fillIndex() throws IOException {
+        questionSearchIndex = new QuestionSearchIndex();
+        questionSearchIndex.open();
+        questionSearchIndex.index(question(1, "Java", "Easy", "Which keyword declares a constant in Java?", "final", "static", "const", "var"));
+        questionSearchIndex.index(question(2, "Java", "Hard", "How does the garbage collector find live objects?", "reference counting", "tracing from GC roots", "finalizers", "weak references"));
+        questionSearchIndex.index(question(3, "Python", "Easy", "Which keyword defines a function in Python?", "def", "fun", "function", "lambda"));
+        questionSearchIndex.index(question(4, "java", "Medium", "What is the size of an int in Java?", "16 bits", "32 bits", "64 bits", "it depends"));
+        questionSearchIndex.refresh();
+    }
+
+    @AfterEach
+    void closeIndex() throws IOException {
+        questionSearchIndex.close();
+    }
+
+    @Test
+    @DisplayName("Category lookups ignore case and return questions in id order")
+    void testFindByCategory_whenCaseDiffers_returnsWholeCategory() {
+        // Act
+        List<Question> questions = questionSearchIndex.findByCategory("JAVA");
+
+        // Assert
+        Assertions.assertEquals(List.of(1, 2, 4), questions.stream().map(Question::getId).toList(),
+                "Should return every Java question whatever the case of its category");
+        Assertions.assertEquals("final", questions.get(0).getRightAnswer(), "Should return the stored question");
+        Assertions.assertTrue(questionSearchIndex.findByCategory("Go").isEmpty(), "Unknown category should be empty");
+    }
+
+    @Test
+    @DisplayName("Text search ranks matches and counts facets over every match")
+    void testSearch_whenTextMatches_returnsRankedHitsAndFacets() {
+        // Act
+        QuestionSearchResult result = questionSearchIndex.search("keyword", null, null, 0, 10, 10);
+
+        // Assert
+        Assertions.assertEquals(2, result.getTotalHits(), "Should match the two questions about keywords");
+        Assertions.assertEquals(2, result.getHits().size(), "Should return both hits on the first page");
+        Map<String, Integer> categories = result.getFacets().get(QuestionSearchIndex.CATEGORY_FACET);
+        Assertions.assertEquals(1, categories.get("Java"), "Should count one Java match");
+        Assertions.assertEquals(1, categories.get("Python"), "Should count one Python match");
+        Assertions.assertEquals(2, result.getFacets().get(QuestionSearchIndex.DIFFICULTY_FACET).get("Easy"),
+                "Both matches are Easy");
+    }
+
+    @Test
+    @DisplayName("Filters narrow the search and pages skip earlier hits")
+    void testSearch_whenFilteredAndPaged_returnsRequestedPage() {
+        // Act
+        QuestionSearchResult firstPage = questionSearchIndex.search(null, "java", null, 0, 2, 10);
+        QuestionSearchResult secondPage = questionSearchIndex.search(null, "java", null, 1, 2, 10);
+        QuestionSearchResult hard = questionSearchIndex.search("", "Java", "hard", 0, 10, 10);
+
+        // Assert
+        Assertions.assertEquals(3, firstPage.getTotalHits(), "Should match the three Java questions");
+        Assertions.assertEquals(2, firstPage.getHits().size(), "Should fill the first page");
+        Assertions.assertEquals(1, secondPage.getHits().size(), "Should return the remaining hit on the second page");
+        Assertions.assertEquals(List.of(2), hard.getHits().stream().map(QuestionSearchHit::getId).toList(),
+                "Should only return the Hard Java question");
+    }
+
+    @Test
+    @DisplayName("Re-indexing a question replaces the old copy")
+    void testIndex_whenQuestionIsUpdated_replacesDocument() {
+        // Arrange
+        questionSearchIndex.index(question(3, "Python", "Easy", "Which statement imports a module in Python?", "import", "include", "require", "using"));
+        questionSearchIndex.refresh();
+
+        // Act
+        QuestionSearchResult oldText = questionSearchIndex.search("function", null, null, 0, 10, 10);
+        QuestionSearchResult newText = questionSearchIndex.search("module", null, null, 0, 10, 10);
+
+        // Assert
+        Assertions.assertEquals(0, oldText.getTotalHits(), "Old text should no longer match");
+        Assertions.assertEquals(1, newText.getTotalHits(), "New text should match");
+        Assertions.assertEquals(1, questionSearchIndex.findByCategory("python").size(), "Should not duplicate the question");
+    }
+
+    @Test
+    @DisplayName("A stored question keeps its update time to the microsecond")
+    void testFindByCategory_whenQuestionWasUpdated_keepsUpdatedAtPrecision() {
+        // Arrange
+        Question updated = question(5, "Go", "Easy", "Which keyword starts a goroutine?", "go", "async", "spawn", "thread");
+        updated.setUpdatedAt(Instant.parse("2024-05-01T10:15:30.123456Z"));
+        questionSearchIndex.index(updated);
+        questionSearchIndex.refresh();
+
+        // Act
+        Question stored = questionSearchIndex.findByCategory("go").get(0);
+
+        // Assert
+        Assertions.assertEquals(updated.getUpdatedAt(), stored.getUpdatedAt(), "Should not truncate to milliseconds");
+    }
+
+    @Test
+    @DisplayName("The warm-up does not replace a question saved since, nor index it twice")
+    void testIndexIfAbsent_whenIdWasSavedMeanwhile_keepsSavedDocument() {
+        // Act
+        questionSearchIndex.indexIfAbsent(question(3, "Python", "Easy", "An older title", "def", "fun", "function", "lambda"));
+        questionSearchIndex.indexIfAbsent(question(5, "Go", "Easy", "Which keyword starts a goroutine?", "go", "async", "spawn", "run"));
+        questionSearchIndex.refresh();
+
+        // Assert
+        List<Question> python = questionSearchIndex.findByCategory("Python");
+        Assertions.assertEquals(1, python.size(), "Should hold one document per id");
+        Assertions.assertEquals("Which keyword defines a function in Python?", python.get(0).getQuestionTitle(),
+                "Should keep the saved copy");
+        Assertions.assertEquals(1, questionSearchIndex.findByCategory("Go").size(), "Should add an id not yet indexed");
+    }
+
+    private static Question question(int id, String category, String difficultyLevel, String title,
+                                     String option1, String option2, String option3, String option4) {
+        Question question = new Question();
+        question.setId(id);
+        question.setCategory(category);
+        question.setDifficultyLevel(difficultyLevel);
+        question.setQuestionTitle(title);
+        question.setOption1(option1);
+        question.setOption2(option2);
+        question.setOption3(option3);
+        question.setOption4(option4);
+        question.setRightAnswer(option1);
+        return question;
+    }
+}
@@ -0,0 +1,115 @@
+package com.dmaddi.questionservice.ingest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+public class CsvRowReaderTest {
+
+    private static final String HEADER = "category,difficultyLevel,questionTitle,option1,option2,option3,option4,rightAnswer\n";
+
+    @Test
+    @DisplayName("Quoted fields keep their commas and doubled quotes")
+    void testNext_whenFieldsAreQuoted_unescapesThem() throws IOException {
+        // Arrange
+        CsvRowReader reader = reader(HEADER + "Java,Easy,\"Which of \"\"a, b\"\" compiles?\",a,\"b, c\",c,d,a\n");
+
+        // Act
+        QuestionRow row = reader.next();
+
+        // Assert
+        Assertions.assertNull(row.getError(), "Should parse the row");
+        Assertions.assertEquals("Which of \"a, b\" compiles?", row.getQuestion().getQuestionTitle());
+        Assertions.assertEquals("b, c", row.getQuestion().getOption2());
+        Assertions.assertEquals(2, row.getNumber(), "The first row after the header is on line 2");
+        Assertions.assertNull(reader.next(), "Should end after the last row");
+    }
+
+    @Test
+    @DisplayName("A quoted line break stays in the field and rows are numbered by the line they start on")
+    void testNext_whenFieldHasLineBreak_numbersRowsByLine() throws IOException {
+        // Arrange
+        CsvRowReader reader = reader(HEADER
+                + "Java,Easy,\"First line\nsecond line\nthird line\",a,b,c,d,a\n"
+                + "Java,Easy,Too short,a\n");
+
+        // Act
+        QuestionRow multiLine = reader.next();
+        QuestionRow tooShort = reader.next();
+
+        // Assert
+        Assertions.assertEquals("First line\nsecond line\nthird line", multiLine.getQuestion().getQuestionTitle());
+        Assertions.assertEquals(2, multiLine.getNumber());
+        Assertions.assertEquals(5, tooShort.getNumber(), "The row after a three line record starts on line 5");
+        Assertions.assertEquals("Expected 8 columns but found 4", tooShort.getError());
+    }
+
+    @Test
+    @DisplayName("CRLF line endings are not part of the last field")
+    void testNext_whenLinesEndWithCrLf_dropsCarriageReturns() throws IOException {
+        // Arrange
+        CsvRowReader reader = reader(HEADER.replace("\n", "\r\n")
+                + "Java,Easy,Title one,a,b,c,d,a\r\n"
+                + "\r\n"
+                + "Java,Hard,Title two,a,b,c,d,b\r\n");
+
+        // Act
+        QuestionRow first = reader.next();
+        QuestionRow second = reader.next();
+
+        // Assert
+        Assertions.assertEquals("a", first.getQuestion().getRightAnswer());
+        Assertions.assertEquals("b", second.getQuestion().getRightAnswer());
+        Assertions.assertEquals(4, second.getNumber(), "The blank line is skipped but still counted");
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("A read error is positioned at the line the unfinished row started on")
+    void testPosition_whenReadFailsMidRow_pointsAtRowStart() throws IOException {
+        // Arrange
+        String input = HEADER + "Java,Easy,Title one,a,b,c,d,a\n" + "Java,Easy,\"Title\ntwo";
+        CsvRowReader reader = new CsvRowReader(new BufferedReader(new FailingReader(input)));
+        reader.next();
+
+        // Act
+        Assertions.assertThrows(IOException.class, reader::next);
+
+        // Assert
+        Assertions.assertEquals(3, reader.position(), "Should point at the row that could not be read");
+    }
+
+    private static CsvRowReader reader(String csv) throws IOException {
+        return new CsvRowReader(new BufferedReader(new StringReader(csv)));
+    }
+
+    /**
+     * Serves the given text, then fails as a dropped connection would.
+     */
+    private static class FailingReader extends Reader {
+
+        private final StringReader delegate;
+
+        FailingReader(String text) {
+            this.delegate = new StringReader(text);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = delegate.read(buffer, offset, length);
+            if(read == -1)
+                throw new IOException("Connection reset");
+            return read;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
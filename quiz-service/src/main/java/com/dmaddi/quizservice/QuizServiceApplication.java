@@ -1,11 +1,14 @@
 package com.dmaddi.quizservice;
 
+import com.dmaddi.quizservice.loadbalancer.LatencyAwareLoadBalancerConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
 @EnableFeignClients
+@LoadBalancerClient(name = "QUESTION-SERVICE", configuration = LatencyAwareLoadBalancerConfig.class)
 public class QuizServiceApplication {
 
 	public static void main(String[] args) {
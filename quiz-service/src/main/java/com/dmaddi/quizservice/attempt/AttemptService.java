@@ -0,0 +1,323 @@
+package com.dmaddi.quizservice.attempt;
+
+import com.dmaddi.quizservice.batch.MicroBatcher;
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.dao.AttemptDao;
+import com.dmaddi.quizservice.model.AttemptDto;
+import com.dmaddi.quizservice.model.AttemptResult;
+import com.dmaddi.quizservice.model.AttemptStatus;
+import com.dmaddi.quizservice.model.QuizAttempt;
+import com.dmaddi.quizservice.model.Response;
+import com.dmaddi.quizservice.service.QuizService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous submissions. An attempt is checked against its quiz, appended to quiz_attempt
+ * through a group-commit batcher (quiz.attempts.write.*) and acknowledged with 202 and its id
+ * straight away. Scoring happens on a fixed pool of quiz.attempts.workers threads behind a bounded
+ * queue, so a submission spike fills the queue instead of question-service. The outcome is
+ * appended to attempt_result the same way and pushed to clients waiting on the attempt's event
+ * stream; others poll for it. A client may watch through a different instance than the one that
+ * scores its attempt, so the watched attempts are also looked up every
+ * quiz.attempts.watch-poll-interval.
+ * <p>
+ * Attempts that could not be scored yet (full queue, question-service unavailable, restart) stay
+ * pending, and every quiz.attempts.recovery-interval each instance claims a batch whose lease has
+ * run out; see {@link AttemptDao#claimPending}.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AttemptService {
+
+    public static final String RESULT_EVENT = "result";
+
+    @Autowired
+    private AttemptDao attemptDao;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${quiz.attempts.write.window:5ms}")
+    private Duration writeWindow;
+
+    @Value("${quiz.attempts.write.max-size:500}")
+    private int writeMaxSize;
+
+    @Value("${quiz.attempts.write.queue-capacity:10000}")
+    private int writeQueueCapacity;
+
+    @Value("${quiz.attempts.workers:64}")
+    private int workers;
+
+    @Value("${quiz.attempts.worker-queue-capacity:10000}")
+    private int workerQueueCapacity;
+
+    @Value("${quiz.attempts.recovery-interval:30s}")
+    private Duration recoveryInterval;
+
+    @Value("${quiz.attempts.recovery-batch-size:1000}")
+    private int recoveryBatchSize;
+
+    @Value("${quiz.attempts.sse-timeout:2m}")
+    private Duration sseTimeout;
+
+    @Value("${quiz.attempts.watch-poll-interval:1s}")
+    private Duration watchPollInterval;
+
+    private ExecutorService writeExecutor;
+    private MicroBatcher<QuizAttempt, QuizAttempt> attemptWriter;
+    private MicroBatcher<AttemptResult, AttemptResult> resultWriter;
+    private ExecutorService scoringPool;
+    private ScheduledExecutorService recovery;
+    private ScheduledExecutorService watchPoller;
+
+    // attempts queued or being scored on this instance, so recovery does not schedule them twice
+    private final Set<Long> scoring = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, List<Watcher>> watchers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        writeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        attemptWriter = new MicroBatcher<>("quiz.attempts.write", writeWindow, writeMaxSize, writeQueueCapacity,
+                attemptDao::insertAttempts, writeExecutor, meterRegistry);
+        resultWriter = new MicroBatcher<>("quiz.attempts.result_write", writeWindow, writeMaxSize, writeQueueCapacity,
+                results -> {
+                    attemptDao.insertResults(results);
+                    return results;
+                }, writeExecutor, meterRegistry);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        scoringPool = ExecutorServiceMetrics.monitor(meterRegistry,
+                new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(workerQueueCapacity),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "quiz-attempt-scorer-" + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }),
+                "quiz.attempts.scoring");
+
+        recovery = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quiz-attempt-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recovery.scheduleWithFixedDelay(this::recoverPending, recoveryInterval.toMillis(), recoveryInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+
+        watchPoller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quiz-attempt-watch-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchPoller.scheduleWithFixedDelay(this::pollWatched, watchPollInterval.toMillis(), watchPollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        recovery.shutdownNow();
+        watchPoller.shutdownNow();
+        scoringPool.shutdownNow();
+        attemptWriter.close();
+        resultWriter.close();
+        writeExecutor.close();
+    }
+
+    public CompletableFuture<ResponseEntity<AttemptDto>> submit(Integer quizId, List<Response> responses) {
+        Optional<HttpStatus> rejection = quizService.checkResponses(quizId, responses);
+        if(rejection.isPresent())
+            return CompletableFuture.completedFuture(new ResponseEntity<>(rejection.get()));
+
+        int[] questionIds = new int[responses.size()];
+        String[] answers = new String[responses.size()];
+        for(int i = 0; i < responses.size(); i++) {
+            questionIds[i] = responses.get(i).getId();
+            answers[i] = responses.get(i).getResponse();
+        }
+        QuizAttempt attempt = new QuizAttempt(null, quizId, questionIds, answers, Instant.now());
+
+        return attemptWriter.submit(attempt).<ResponseEntity<AttemptDto>>handle((saved, e) -> {
+            if(e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if(cause instanceof RejectedExecutionException)
+                    return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+                throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+            }
+            schedule(saved);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/quiz/attempt/result/" + saved.getId()))
+                    .body(new AttemptDto(saved.getId(), quizId, AttemptStatus.PENDING, null));
+        });
+    }
+
+    public ResponseEntity<AttemptDto> getAttempt(long attemptId) {
+        return attemptDao.findAttempt(attemptId)
+                .map(attempt -> new ResponseEntity<>(attempt, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Server-sent event stream that emits a single "result" event once the attempt is no longer
+     * pending, then completes.
+     */
+    public ResponseEntity<SseEmitter> watch(long attemptId) {
+        Optional<AttemptDto> attempt = attemptDao.findAttempt(attemptId);
+        if(attempt.isEmpty())
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+
+        Watcher watcher = new Watcher(new SseEmitter(sseTimeout.toMillis()), new AtomicBoolean());
+        List<Watcher> attemptWatchers = watchers.computeIfAbsent(attemptId, id -> new CopyOnWriteArrayList<>());
+        attemptWatchers.add(watcher);
+        Runnable unregister = () -> watchers.computeIfPresent(attemptId, (id, list) -> {
+            list.remove(watcher);
+            return list.isEmpty() ? null : list;
+        });
+        watcher.emitter().onCompletion(unregister);
+        watcher.emitter().onTimeout(unregister);
+
+        // the result may have been stored between the lookup and the registration
+        AttemptDto current = attempt.get().getStatus() == AttemptStatus.PENDING
+                ? attemptDao.findAttempt(attemptId).orElse(attempt.get())
+                : attempt.get();
+        if(current.getStatus() != AttemptStatus.PENDING)
+            watcher.send(current);
+        return new ResponseEntity<>(watcher.emitter(), HttpStatus.OK);
+    }
+
+    private void schedule(QuizAttempt attempt) {
+        if(!scoring.add(attempt.getId()))
+            return;
+        try {
+            scoringPool.execute(() -> score(attempt));
+        } catch (RejectedExecutionException e) {
+            // left pending; a sweep on this or another instance schedules it again
+            scoring.remove(attempt.getId());
+            releaseClaim(attempt.getId());
+        }
+    }
+
+    private void score(QuizAttempt attempt) {
+        List<Response> responses = new ArrayList<>(attempt.getQuestionIds().length);
+        for(int i = 0; i < attempt.getQuestionIds().length; i++) {
+            Response response = new Response();
+            response.setId(attempt.getQuestionIds()[i]);
+            response.setResponse(attempt.getAnswers()[i]);
+            responses.add(response);
+        }
+
+        AttemptResult result;
+        try {
+            ResponseEntity<Integer> score = quizService.score(attempt.getQuizId(), responses).join();
+            result = score.getStatusCode().is2xxSuccessful()
+                    ? new AttemptResult(attempt.getId(), AttemptStatus.SCORED, score.getBody(), Instant.now())
+                    : new AttemptResult(attempt.getId(), AttemptStatus.REJECTED, null, Instant.now());
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if(cause instanceof QuestionServiceUnavailableException) {
+                scoring.remove(attempt.getId());
+                releaseClaim(attempt.getId());
+                return;
+            }
+            log.error("Scoring attempt {} failed", attempt.getId(), cause);
+            result = new AttemptResult(attempt.getId(), AttemptStatus.FAILED, null, Instant.now());
+        }
+
+        resultWriter.submit(result).whenComplete((saved, e) -> {
+            scoring.remove(attempt.getId());
+            if(e != null) {
+                log.warn("Could not store the result of attempt {}, it will be scored again", attempt.getId(), e);
+                return;
+            }
+            notifyWatchers(new AttemptDto(saved.getAttemptId(), attempt.getQuizId(), saved.getStatus(), saved.getScore()));
+        });
+    }
+
+    private void notifyWatchers(AttemptDto attempt) {
+        List<Watcher> attemptWatchers = watchers.remove(attempt.getAttemptId());
+        if(attemptWatchers != null)
+            attemptWatchers.forEach(watcher -> watcher.send(attempt));
+    }
+
+    private void releaseClaim(long attemptId) {
+        try {
+            attemptDao.releaseClaim(attemptId);
+        } catch (RuntimeException e) {
+            log.debug("Could not release attempt {}, it is retried once its lease runs out", attemptId, e);
+        }
+    }
+
+    private void recoverPending() {
+        try {
+            List<QuizAttempt> pending = attemptDao.claimPending(recoveryBatchSize);
+            if(!pending.isEmpty())
+                log.info("Rescheduling {} pending attempts", pending.size());
+            pending.forEach(this::schedule);
+        } catch (RuntimeException e) {
+            log.warn("Could not look up pending attempts", e);
+        }
+    }
+
+    // results stored by other instances; one query for all attempts watched on this instance
+    private void pollWatched() {
+        if(watchers.isEmpty())
+            return;
+        try {
+            attemptDao.findResults(new ArrayList<>(watchers.keySet())).forEach(this::notifyWatchers);
+        } catch (RuntimeException e) {
+            log.warn("Could not look up the results of watched attempts", e);
+        }
+    }
+
+    private record Watcher(SseEmitter emitter, AtomicBoolean sent) {
+
+        void send(AttemptDto attempt) {
+            if(!sent.compareAndSet(false, true))
+                return;
+            try {
+                emitter.send(SseEmitter.event().name(RESULT_EVENT).data(attempt));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.dmaddi.quizservice.batch;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects items submitted one by one into batches for a handler that processes many at once.
+ * A batch is cut once it has maxBatchSize items or window has passed since its first item
+ * arrived, whichever comes first, and handed to the executor while the next one fills. The
+ * handler returns one result per item, in order; each submitter's future completes with its own,
+ * and every future of the batch fails with IllegalStateException if the counts do not match.
+ * Metrics under the given name: window and max_size gauges, queue depth, batch size and the time
+ * items wait before their batch is handled.
+ */
+@Slf4j
+public class MicroBatcher<T, R> implements AutoCloseable {
+
+    private final String name;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Function<List<T>, List<R>> handler;
+    private final Executor executor;
+    private final BlockingQueue<Pending<T, R>> queue;
+    private final Thread dispatcher;
+    private final DistributionSummary batchSizes;
+    private final Timer queueWait;
+    private volatile boolean running = true;
+
+    public MicroBatcher(String name, Duration window, int maxBatchSize, int queueCapacity,
+                        Function<List<T>, List<R>> handler, Executor executor, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.handler = handler;
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder(name + ".window", this, batcher -> batcher.window.toMillis())
+                .baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder(name + ".max_size", this, batcher -> batcher.maxBatchSize).register(meterRegistry);
+        Gauge.builder(name + ".queue", this, batcher -> batcher.queue.size()).register(meterRegistry);
+        batchSizes = DistributionSummary.builder(name + ".size").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        queueWait = Timer.builder(name + ".wait").publishPercentiles(0.5, 0.99).register(meterRegistry);
+
+        dispatcher = Thread.ofPlatform().name(name + "-dispatcher").daemon().start(this::dispatchLoop);
+    }
+
+    /**
+     * Queues an item; the future fails with RejectedExecutionException when the queue is full or
+     * the batcher is closed, and with the executor's exception if the batch cannot be dispatched.
+     */
+    public CompletableFuture<R> submit(T item) {
+        Pending<T, R> pending = new Pending<>(item, System.nanoTime(), new CompletableFuture<>());
+        if(!running || !queue.offer(pending))
+            pending.result().completeExceptionally(new RejectedExecutionException(name + " queue is full"));
+        else if(!running && queue.remove(pending))
+            pending.result().completeExceptionally(new RejectedExecutionException(name + " is closed"));
+        return pending.result();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+    }
+
+    private void dispatchLoop() {
+        while(running) {
+            List<Pending<T, R>> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                executor.execute(() -> handle(batch));
+            } catch (RuntimeException e) {
+                // RejectedExecutionException from a saturated or shut down executor included
+                log.error("{} failed to dispatch a batch", name, e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            }
+        }
+        // fail what was queued after the batcher was closed instead of leaving it waiting
+        List<Pending<T, R>> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.result().completeExceptionally(new RejectedExecutionException(name + " is closed")));
+    }
+
+    private List<Pending<T, R>> nextBatch() throws InterruptedException {
+        Pending<T, R> first = queue.take();
+        List<Pending<T, R>> batch = new ArrayList<>(Math.min(maxBatchSize, 64));
+        batch.add(first);
+        long deadline = first.enqueuedAtNanos() + window.toNanos();
+        while(batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if(batch.size() >= maxBatchSize || remaining <= 0)
+                break;
+            Pending<T, R> next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // closed mid-batch: dispatch what was collected, the loop then stops
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if(next == null)
+                break;
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void handle(List<Pending<T, R>> batch) {
+        long now = System.nanoTime();
+        batchSizes.record(batch.size());
+        List<T> items = new ArrayList<>(batch.size());
+        for(Pending<T, R> pending: batch) {
+            queueWait.record(now - pending.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+            items.add(pending.item());
+        }
+
+        List<R> results;
+        try {
+            results = handler.apply(items);
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+        if(results == null || results.size() != batch.size()) {
+            // results can no longer be matched to their items, so none of them is handed out
+            IllegalStateException e = new IllegalStateException(name + " handler returned "
+                    + (results == null ? "no results" : results.size() + " results") + " for " + batch.size() + " items");
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+        for(int i = 0; i < batch.size(); i++)
+            batch.get(i).result().complete(results.get(i));
+    }
+
+    private record Pending<T, R>(T item, long enqueuedAtNanos, CompletableFuture<R> result) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.dmaddi.quizservice.batch;
+
+import com.dmaddi.quizservice.client.QuestionClient;
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.model.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Groups quiz submissions into batches for question-service's getScores endpoint, cut by
+ * quiz.submit.batch.window and quiz.submit.batch.max-size (see {@link MicroBatcher}). Identical
+ * submissions in a batch are scored once. Each caller gets a future completed with its own
+ * score, or 400 if question-service rejected that submission.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SubmissionBatcher {
+
+    @Autowired
+    private QuestionClient questionClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${quiz.submit.batch.window:10ms}")
+    private Duration window;
+
+    @Value("${quiz.submit.batch.max-size:200}")
+    private int maxBatchSize;
+
+    @Value("${quiz.submit.batch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private ExecutorService batchExecutor;
+    private MicroBatcher<List<Response>, Integer> batcher;
+
+    @PostConstruct
+    void init() {
+        batchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        batcher = new MicroBatcher<>("quiz.submit.batch", window, maxBatchSize, queueCapacity,
+                this::score, batchExecutor, meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        batcher.close();
+        batchExecutor.close();
+    }
+
+    public CompletableFuture<ResponseEntity<Integer>> submit(List<Response> responses) {
+        return batcher.submit(responses)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if(cause instanceof RejectedExecutionException)
+                        throw new QuestionServiceUnavailableException("getScores", cause);
+                    throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+                })
+                .thenApply(score -> score == null
+                        ? new ResponseEntity<>(0, HttpStatus.BAD_REQUEST)
+                        : new ResponseEntity<>(score, HttpStatus.OK));
+    }
+
+    private List<Integer> score(List<List<Response>> submissions) {
+        Map<List<Response>, Integer> distinct = new LinkedHashMap<>();
+        for(List<Response> responses: submissions)
+            distinct.putIfAbsent(responses, distinct.size());
+        List<Integer> scores = questionClient.getScores(new ArrayList<>(distinct.keySet()));
+
+        List<Integer> results = new ArrayList<>(submissions.size());
+        for(List<Response> responses: submissions) {
+            int index = distinct.get(responses);
+            results.add(scores != null && index < scores.size() ? scores.get(index) : null);
+        }
+        return results;
+    }
+}
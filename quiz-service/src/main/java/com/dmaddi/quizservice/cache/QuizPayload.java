@@ -0,0 +1,140 @@
+package com.dmaddi.quizservice.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded form of a quiz's questions: the JSON body, an optional gzip copy of it and the
+ * strong ETag derived from the JSON bytes. Built once per quiz and served as-is afterwards.
+ * The gzip copy is a different representation, so it carries its own ETag: the same hash with
+ * a -gz suffix.
+ */
+@Getter
+@AllArgsConstructor
+public class QuizPayload {
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    // the identity ETag with -gz inside the quotes
+    private final String gzipEtag;
+
+    /**
+     * Wraps already encoded JSON, adding a gzip copy when the body is at least gzipMinBytes long
+     * (a negative threshold disables gzip).
+     */
+    public static QuizPayload of(byte[] json, int gzipMinBytes) {
+        byte[] gzip = null;
+        if(gzipMinBytes >= 0 && json.length >= gzipMinBytes) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            gzip = buffer.toByteArray();
+        }
+        String etag = etagOf(json);
+        return new QuizPayload(json, gzip, etag, etag.substring(0, etag.length() - 1) + "-gz\"");
+    }
+
+    public int weight() {
+        return json.length + (gzip == null ? 0 : gzip.length) + (etag.length() + gzipEtag.length()) * 2;
+    }
+
+    /**
+     * True when an If-None-Match header value names either representation's ETag (or is "*").
+     * Both describe the same content, so a client revalidating after a switch of encoding still
+     * gets a 304.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if(ifNoneMatch == null)
+            return false;
+        for(String candidate: ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if(tag.startsWith("W/"))
+                tag = tag.substring(2);
+            if(tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Builds the HTTP response for this payload: 304 for a matching If-None-Match, otherwise the
+     * stored bytes, gzip-encoded when the client accepts it. Either way the ETag is the one of
+     * the representation the client would get.
+     */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding, CacheControl cacheControl) {
+        boolean gzipped = gzip != null && acceptsGzip(acceptEncoding);
+        String tag = gzipped ? gzipEtag : etag;
+        if(matches(ifNoneMatch))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(tag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if(gzipped)
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        return response.body(json);
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed as gzip (or x-gzip) with a non-zero
+     * q-value, or covered by "*" when gzip is not listed itself.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if(acceptEncoding == null)
+            return false;
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for(String element: acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for(int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if(parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                        && parameter.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if(coding.equals("gzip") || coding.equals("x-gzip"))
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            else if(coding.equals("*"))
+                anyQuality = quality;
+        }
+        if(gzipQuality != null)
+            return gzipQuality > 0;
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.dmaddi.quizservice.cache;
+
+import com.dmaddi.quizservice.client.QuestionClient;
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.dao.QuizDao;
+import com.dmaddi.quizservice.model.QuestionWrapper;
+import com.dmaddi.quizservice.model.Quiz;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Near-cache of the encoded questions of each quiz. A quiz's question ids never change after
+ * creation, so the JSON (and gzip) bytes are produced once and served directly on every read.
+ * Entries leave through size-based (W-TinyLFU) eviction, idle expiry, or {@link #evict} when one
+ * of the quiz's questions is edited (see AnswerKeyInvalidator); the reloaded payload gets a new
+ * ETag. Concurrent misses for the same quiz share a single load, so a cold popular quiz costs one
+ * upstream call.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class QuizQuestionCache {
+
+    @Autowired
+    private QuizDao quizDao;
+
+    @Autowired
+    private QuestionClient questionClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quiz.cache.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${quiz.cache.expire-after-access:1h}")
+    private Duration expireAfterAccess;
+
+    @Value("${quiz.cache.stale-max-weight-bytes:33554432}")
+    private long staleMaxWeightBytes;
+
+    @Value("${quiz.http.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private LoadingCache<Integer, QuizPayload> cache;
+
+    // Last payload successfully loaded per quiz, kept past idle expiry. Served when question-service
+    // is unavailable (open circuit, full bulkhead, missed deadline).
+    private Cache<Integer, QuizPayload> stalePayloads;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Integer id, QuizPayload payload) -> payload.weight())
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build(this::load);
+        stalePayloads = Caffeine.newBuilder()
+                .maximumWeight(staleMaxWeightBytes)
+                .weigher((Integer id, QuizPayload payload) -> payload.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "quizQuestions");
+        CaffeineCacheMetrics.monitor(meterRegistry, stalePayloads, "quizQuestionsStale");
+    }
+
+    /**
+     * Returns the encoded questions of the quiz, or null when the quiz does not exist.
+     */
+    public QuizPayload get(Integer quizId) {
+        return cache.get(quizId);
+    }
+
+    /**
+     * Loads and encodes a newly created quiz in the background so its first read is already a hit.
+     */
+    public void preload(Integer quizId) {
+        cache.refresh(quizId);
+    }
+
+    /**
+     * Drops the payloads of these quizzes, stale copies included, after their questions changed.
+     */
+    public void evict(Collection<Integer> quizIds) {
+        cache.invalidateAll(quizIds);
+        stalePayloads.invalidateAll(quizIds);
+    }
+
+    private QuizPayload load(Integer quizId) throws IOException {
+        Optional<Quiz> quiz = quizDao.findById(quizId);
+        if(quiz.isEmpty())
+            return null;
+        try {
+            QuizPayload payload = encode(questionClient.getQuestionsFromId(quiz.get().getQuestionIds()));
+            stalePayloads.put(quizId, payload);
+            return payload;
+        } catch (QuestionServiceUnavailableException e) {
+            QuizPayload stale = stalePayloads.getIfPresent(quizId);
+            if(stale == null)
+                throw e;
+            log.warn("Serving stale questions for quiz {}: {}", quizId, e.getMessage());
+            return stale;
+        }
+    }
+
+    QuizPayload encode(List<QuestionWrapper> questions) throws IOException {
+        return QuizPayload.of(objectMapper.writeValueAsBytes(questions), gzipMinBytes);
+    }
+}
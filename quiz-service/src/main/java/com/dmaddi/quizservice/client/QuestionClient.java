@@ -0,0 +1,221 @@
+package com.dmaddi.quizservice.client;
+
+import com.dmaddi.quizservice.feign.QuizInterface;
+import com.dmaddi.quizservice.grpc.QuestionGrpcClient;
+import com.dmaddi.quizservice.model.AnswerKeyEntry;
+import com.dmaddi.quizservice.model.QuestionChanges;
+import com.dmaddi.quizservice.model.QuestionSelection;
+import com.dmaddi.quizservice.model.QuestionWrapper;
+import com.dmaddi.quizservice.model.Response;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextScheduledExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Resilient front for every call quiz-service makes to question-service.
+ * <p>
+ * Each call runs under a per-method deadline (the TimeLimiter instance named after the method),
+ * inside the questionService bulkhead and circuit breaker. The idempotent reads are hedged: if
+ * the first attempt has not answered after quiz.question-client.hedge-delay, a second one is sent
+ * (which the load balancer routes independently) and whichever succeeds first wins. Each call,
+ * hedges and fallbacks included, is timed as quiz.question_client.calls; single HTTP attempts
+ * show up in Feign's http.client.requests.
+ */
+@Component
+public class QuestionClient {
+
+    private static final String BACKEND = "questionService";
+
+    @Autowired
+    private QuizInterface quizInterface;
+
+    @Autowired
+    private QuestionGrpcClient questionGrpcClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private TimeLimiterRegistry timeLimiterRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${quiz.question-client.transport:http}")
+    private String transport;
+
+    @Value("${quiz.question-client.hedge-delay:150ms}")
+    private Duration hedgeDelay;
+
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private ExecutorService callExecutor;
+    private ScheduledExecutorService hedgeScheduler;
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(BACKEND);
+        bulkhead = bulkheadRegistry.bulkhead(BACKEND);
+        // Calls and hedges run on other threads; carry the caller's observation (trace context) along.
+        ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+        callExecutor = ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(), snapshots::captureAll);
+        hedgeScheduler = ContextScheduledExecutorService.wrap(Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "question-client-hedge");
+            thread.setDaemon(true);
+            return thread;
+        }), snapshots::captureAll);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeScheduler.shutdownNow();
+        callExecutor.shutdownNow();
+    }
+
+    public int[] getQuestionsForQuiz(String categoryName, Integer numQuestions) {
+        return call("generate", true, () -> quizInterface.getQuestionsForQuiz(categoryName, numQuestions).getBody());
+    }
+
+    /**
+     * Questions for a new quiz, checked by question-service against its live category counts.
+     * Throws FeignException.NotFound for an unknown category and FeignException.Conflict when
+     * it does not hold enough questions.
+     */
+    public int[] selectQuestions(QuestionSelection selection) {
+        return call("generate", true, () -> quizInterface.selectQuestions(selection).getBody());
+    }
+
+    public List<QuestionWrapper> getQuestionsFromId(int[] questionIds) {
+        if("grpc".equalsIgnoreCase(transport))
+            return call("getQuestions", true, () -> questionGrpcClient.getQuestionsFromId(questionIds));
+        return call("getQuestions", true, () -> quizInterface.getQuestionsFromId(questionIds).getBody());
+    }
+
+    public ResponseEntity<Integer> getScore(List<Response> responses) {
+        try {
+            return call("getScore", false, () -> quizInterface.getScore(responses));
+        } catch (FeignException.BadRequest e) {
+            // question-service rejected the submission (unknown or duplicate ids)
+            return new ResponseEntity<>(0, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Scores a batch of submissions in one call; one score per submission, null where
+     * question-service rejected that submission.
+     */
+    public List<Integer> getScores(List<List<Response>> submissions) {
+        return call("getScores", false, () -> quizInterface.getScores(submissions).getBody());
+    }
+
+    public List<AnswerKeyEntry> getAnswerKey(int[] questionIds) {
+        return call("getAnswerKey", true, () -> quizInterface.getAnswerKey(questionIds).getBody());
+    }
+
+    public QuestionChanges getChanges(long since, int afterId, int limit) {
+        return call("getChanges", false, () -> quizInterface.getChanges(since, afterId, limit).getBody());
+    }
+
+    private <T> T call(String method, boolean hedged, Supplier<T> request) {
+        Supplier<CompletableFuture<T>> attempt = () -> CompletableFuture.supplyAsync(request, callExecutor);
+        Supplier<CompletableFuture<T>> attempts = hedged ? () -> hedge(method, attempt) : attempt;
+
+        Callable<T> guarded = () -> timeLimiterRegistry.timeLimiter(method).executeFutureSupplier(attempts);
+        guarded = Bulkhead.decorateCallable(bulkhead, guarded);
+        guarded = CircuitBreaker.decorateCallable(circuitBreaker, guarded);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = guarded.call();
+            outcome = "success";
+            return result;
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            outcome = "unavailable";
+            throw new QuestionServiceUnavailableException(method, e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new QuestionServiceUnavailableException(method, e);
+        } finally {
+            sample.stop(meterRegistry.timer("quiz.question_client.calls", "method", method, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Completes with the first successful attempt. A backup attempt is only sent if the primary
+     * is still running after the hedge delay; the call fails only when every attempt failed.
+     */
+    private <T> CompletableFuture<T> hedge(String method, Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        AtomicReference<CompletableFuture<T>> backup = new AtomicReference<>();
+
+        CompletableFuture<T> primary = attempt.get();
+        primary.whenComplete((value, error) -> settle(result, running, value, error, false, method));
+
+        ScheduledFuture<?> timer = hedgeScheduler.schedule(() -> {
+            if(result.isDone())
+                return;
+            running.incrementAndGet();
+            meterRegistry.counter("quiz.question_client.hedges", "method", method).increment();
+            CompletableFuture<T> second = attempt.get();
+            backup.set(second);
+            second.whenComplete((value, error) -> settle(result, running, value, error, true, method));
+        }, hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+
+        result.whenComplete((value, error) -> {
+            timer.cancel(false);
+            primary.cancel(true);
+            CompletableFuture<T> second = backup.get();
+            if(second != null)
+                second.cancel(true);
+        });
+        return result;
+    }
+
+    private <T> void settle(CompletableFuture<T> result, AtomicInteger running, T value, Throwable error,
+                            boolean fromHedge, String method) {
+        if(error == null) {
+            if(result.complete(value) && fromHedge)
+                meterRegistry.counter("quiz.question_client.hedge_wins", "method", method).increment();
+        } else if(running.decrementAndGet() == 0) {
+            result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.dmaddi.quizservice.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * question-service could not be called: the circuit is open, the bulkhead is full or the
+ * call missed its deadline.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class QuestionServiceUnavailableException extends RuntimeException {
+
+    public QuestionServiceUnavailableException(String method, Throwable cause) {
+        super("question-service " + method + " unavailable: " + cause.getMessage(), cause);
+    }
+}
@@ -1,33 +1,62 @@
 package com.dmaddi.quizservice.controller;
 
-import com.dmaddi.quizservice.model.QuestionWrapper;
+import com.dmaddi.quizservice.attempt.AttemptService;
+import com.dmaddi.quizservice.model.AttemptDto;
 import com.dmaddi.quizservice.model.QuizDto;
 import com.dmaddi.quizservice.model.Response;
 import com.dmaddi.quizservice.service.QuizService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("quiz")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class QuizController {
 
     @Autowired
     private QuizService quizService;
+
+    @Autowired
+    private AttemptService attemptService;
+
     @PostMapping("create")
     public ResponseEntity<String> createQuiz(@RequestBody QuizDto quizDto){
-        return quizService.createQuiz(quizDto.getCategory(), quizDto.getNumQuestions(), quizDto.getTitle());
+        return quizService.createQuiz(quizDto.getCategory(), quizDto.getNumQuestions(), quizDto.getDifficulties(),
+                quizDto.getTitle());
     }
 
     @GetMapping("get/{id}")
-    public ResponseEntity<List<QuestionWrapper>> getQuizQuestions(@PathVariable Integer id) {
-        return quizService.getQuizQuestions(id);
+    public ResponseEntity<byte[]> getQuizQuestions(@PathVariable Integer id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return quizService.getQuizQuestions(id, ifNoneMatch, acceptEncoding);
     }
 
     @PostMapping("submit/{id}")
-    public ResponseEntity<Integer> submitQuiz(@PathVariable Integer id, @RequestBody List<Response> responses) {
+    public CompletableFuture<ResponseEntity<Integer>> submitQuiz(@PathVariable Integer id, @RequestBody List<Response> responses) {
         return quizService.calculateResult(id, responses);
     }
+
+    @PostMapping("attempt/{id}")
+    public CompletableFuture<ResponseEntity<AttemptDto>> submitAttempt(@PathVariable Integer id, @RequestBody List<Response> responses) {
+        return attemptService.submit(id, responses);
+    }
+
+    @GetMapping("attempt/result/{attemptId}")
+    public ResponseEntity<AttemptDto> getAttempt(@PathVariable Long attemptId) {
+        return attemptService.getAttempt(attemptId);
+    }
+
+    @GetMapping(value = "attempt/events/{attemptId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> watchAttempt(@PathVariable Long attemptId) {
+        return attemptService.watch(attemptId);
+    }
 }
@@ -0,0 +1,193 @@
+package com.dmaddi.quizservice.dao;
+
+import com.dmaddi.quizservice.model.AttemptDto;
+import com.dmaddi.quizservice.model.AttemptResult;
+import com.dmaddi.quizservice.model.AttemptStatus;
+import com.dmaddi.quizservice.model.QuizAttempt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Append-only storage of attempts and their results. Both tables are only ever inserted into,
+ * in multi-row JDBC batches; an attempt's status is derived from whether its result row exists.
+ * Unscored attempts are also listed in pending_attempt, written in the same transactions, with a
+ * lease of quiz.attempts.recovery-lease held by the instance scoring them.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AttemptDao {
+
+    private static final String INSERT_ATTEMPT = "INSERT INTO quiz_attempt (quiz_id, question_ids, answers, submitted_at) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_RESULT = "INSERT INTO attempt_result (attempt_id, status, score, completed_at) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (attempt_id) DO NOTHING";
+
+    private static final String INSERT_PENDING = "INSERT INTO pending_attempt (attempt_id, submitted_at, claimed_until) " +
+            "VALUES (?, ?, ?)";
+
+    private static final String DELETE_PENDING = "DELETE FROM pending_attempt WHERE attempt_id = ANY (?)";
+
+    private static final String FIND_ATTEMPT = "SELECT a.id, a.quiz_id, r.status, r.score FROM quiz_attempt a " +
+            "LEFT JOIN attempt_result r ON r.attempt_id = a.id WHERE a.id = ?";
+
+    // rows another instance's sweep is claiming are skipped rather than waited for
+    private static final String CLAIM_PENDING = "WITH claimed AS (UPDATE pending_attempt SET claimed_until = ? " +
+            "WHERE attempt_id IN (SELECT attempt_id FROM pending_attempt WHERE claimed_until IS NULL OR claimed_until < ? " +
+            "ORDER BY attempt_id LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING attempt_id) " +
+            "SELECT a.id, a.quiz_id, a.question_ids, a.answers, a.submitted_at " +
+            "FROM claimed c JOIN quiz_attempt a ON a.id = c.attempt_id ORDER BY a.id";
+
+    private static final String RELEASE_CLAIM = "UPDATE pending_attempt SET claimed_until = NULL WHERE attempt_id = ?";
+
+    private static final String FIND_RESULTS = "SELECT a.id, a.quiz_id, r.status, r.score FROM attempt_result r " +
+            "JOIN quiz_attempt a ON a.id = r.attempt_id WHERE r.attempt_id = ANY (?)";
+
+    private static final RowMapper<AttemptDto> ATTEMPT_MAPPER = (rs, rowNum) -> new AttemptDto(
+            rs.getLong("id"),
+            rs.getInt("quiz_id"),
+            rs.getString("status") == null ? AttemptStatus.PENDING : AttemptStatus.valueOf(rs.getString("status")),
+            (Integer) rs.getObject("score"));
+
+    private static final RowMapper<QuizAttempt> PENDING_MAPPER = (rs, rowNum) -> new QuizAttempt(
+            rs.getLong("id"),
+            rs.getInt("quiz_id"),
+            toIntArray(rs.getArray("question_ids")),
+            (String[]) rs.getArray("answers").getArray(),
+            rs.getTimestamp("submitted_at").toInstant());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.attempts.recovery-lease:2m}")
+    private Duration recoveryLease;
+
+    /**
+     * Inserts the attempts in one batch, setting their generated ids, and marks them pending,
+     * claimed by this instance.
+     */
+    @Transactional
+    public List<QuizAttempt> insertAttempts(List<QuizAttempt> attempts) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_ATTEMPT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        QuizAttempt attempt = attempts.get(i);
+                        Integer[] questionIds = new Integer[attempt.getQuestionIds().length];
+                        for(int j = 0; j < questionIds.length; j++)
+                            questionIds[j] = attempt.getQuestionIds()[j];
+                        ps.setInt(1, attempt.getQuizId());
+                        ps.setArray(2, ps.getConnection().createArrayOf("integer", questionIds));
+                        ps.setArray(3, ps.getConnection().createArrayOf("text", attempt.getAnswers()));
+                        ps.setTimestamp(4, Timestamp.from(attempt.getSubmittedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return attempts.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for(int i = 0; i < attempts.size(); i++)
+            attempts.get(i).setId(((Number) generated.get(i).get("id")).longValue());
+        jdbcTemplate.batchUpdate(INSERT_PENDING, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setLong(1, attempt.getId());
+            ps.setTimestamp(2, Timestamp.from(attempt.getSubmittedAt()));
+            ps.setTimestamp(3, Timestamp.from(attempt.getSubmittedAt().plus(recoveryLease)));
+        });
+        return attempts;
+    }
+
+    /**
+     * Inserts the results in one batch and clears their attempts from pending_attempt. A result
+     * already recorded for an attempt is kept.
+     */
+    @Transactional
+    public void insertResults(List<AttemptResult> results) {
+        jdbcTemplate.batchUpdate(INSERT_RESULT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AttemptResult result = results.get(i);
+                ps.setLong(1, result.getAttemptId());
+                ps.setString(2, result.getStatus().name());
+                ps.setObject(3, result.getScore(), Types.INTEGER);
+                ps.setTimestamp(4, Timestamp.from(result.getCompletedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return results.size();
+            }
+        });
+        Long[] attemptIds = results.stream().map(AttemptResult::getAttemptId).toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DELETE_PENDING);
+            ps.setArray(1, connection.createArrayOf("bigint", attemptIds));
+            return ps;
+        });
+    }
+
+    public Optional<AttemptDto> findAttempt(long id) {
+        List<AttemptDto> attempts = jdbcTemplate.query(FIND_ATTEMPT, ATTEMPT_MAPPER, id);
+        return attempts.stream().findFirst();
+    }
+
+    /**
+     * Results stored for any of the attempts, by any instance.
+     */
+    public List<AttemptDto> findResults(Collection<Long> attemptIds) {
+        Long[] ids = attemptIds.toArray(new Long[0]);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_RESULTS);
+            ps.setArray(1, connection.createArrayOf("bigint", ids));
+            return ps;
+        }, ATTEMPT_MAPPER);
+    }
+
+    /**
+     * Claims up to limit attempts without a result whose lease has run out, oldest first, for
+     * quiz.attempts.recovery-lease. Concurrent sweeps on other instances get disjoint attempts.
+     */
+    public List<QuizAttempt> claimPending(int limit) {
+        Instant now = Instant.now();
+        return jdbcTemplate.query(CLAIM_PENDING, PENDING_MAPPER, Timestamp.from(now.plus(recoveryLease)),
+                Timestamp.from(now), limit);
+    }
+
+    /**
+     * Gives up this instance's claim, so the next sweep on any instance can take the attempt.
+     */
+    public void releaseClaim(long attemptId) {
+        jdbcTemplate.update(RELEASE_CLAIM, attemptId);
+    }
+
+    private static int[] toIntArray(Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        int[] ids = new int[values.length];
+        for(int i = 0; i < values.length; i++)
+            ids[i] = ((Number) values[i]).intValue();
+        return ids;
+    }
+}
@@ -0,0 +1,82 @@
+package com.dmaddi.quizservice.feign;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Codec for the QUESTION-SERVICE Feign client. With quiz.question-client.wire-format=smile, request
+ * bodies are sent and responses requested as Smile (binary JSON) instead of JSON text. The
+ * converters are private to this client, so quiz-service's own endpoints keep answering in JSON.
+ * Deliberately not a @Configuration: it is only applied through {@link QuizInterface}.
+ */
+public class QuestionServiceFeignConfig {
+
+    public static final String SMILE = "application/x-jackson-smile";
+
+    @Value("${quiz.question-client.wire-format:json}")
+    private String wireFormat;
+
+    @Bean
+    public Encoder questionServiceEncoder(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        Encoder delegate = new SpringEncoder(converters(objectMapperBuilder));
+        if(!useSmile())
+            return delegate;
+        return (body, bodyType, template) -> {
+            template.removeHeader(HttpHeaders.CONTENT_TYPE);
+            template.header(HttpHeaders.CONTENT_TYPE, SMILE);
+            delegate.encode(body, bodyType, template);
+        };
+    }
+
+    @Bean
+    public Decoder questionServiceDecoder(Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                          ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+        return new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(converters(objectMapperBuilder), customizers)));
+    }
+
+    @Bean
+    public RequestInterceptor questionServiceAcceptInterceptor() {
+        return template -> {
+            if(useSmile()) {
+                template.removeHeader(HttpHeaders.ACCEPT);
+                template.header(HttpHeaders.ACCEPT, SMILE);
+            }
+        };
+    }
+
+    private boolean useSmile() {
+        return "smile".equalsIgnoreCase(wireFormat);
+    }
+
+    private static ObjectFactory<HttpMessageConverters> converters(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper jsonMapper = objectMapperBuilder.build();
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+        HttpMessageConverters converters = new HttpMessageConverters(false, List.of(
+                new MappingJackson2SmileHttpMessageConverter(smileMapper),
+                new MappingJackson2HttpMessageConverter(jsonMapper),
+                new ByteArrayHttpMessageConverter(),
+                new StringHttpMessageConverter()));
+        return () -> converters;
+    }
+}
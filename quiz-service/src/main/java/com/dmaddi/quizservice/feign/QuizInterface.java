@@ -1,5 +1,8 @@
 package com.dmaddi.quizservice.feign;
 
+import com.dmaddi.quizservice.model.AnswerKeyEntry;
+import com.dmaddi.quizservice.model.QuestionChanges;
+import com.dmaddi.quizservice.model.QuestionSelection;
 import com.dmaddi.quizservice.model.QuestionWrapper;
 import com.dmaddi.quizservice.model.Response;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -11,14 +14,27 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
-@FeignClient("QUESTION-SERVICE")
+@FeignClient(name = "QUESTION-SERVICE", configuration = QuestionServiceFeignConfig.class)
 public interface QuizInterface {
     @GetMapping("question/generate")
-    public ResponseEntity<List<Integer>> getQuestionsForQuiz(@RequestParam String categoryName, @RequestParam Integer numQuestions);
+    public ResponseEntity<int[]> getQuestionsForQuiz(@RequestParam String categoryName, @RequestParam Integer numQuestions);
+
+    @PostMapping("question/generate")
+    public ResponseEntity<int[]> selectQuestions(@RequestBody QuestionSelection selection);
 
     @PostMapping("question/getQuestions")
-    public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(@RequestBody List<Integer> questionIds);
+    public ResponseEntity<List<QuestionWrapper>> getQuestionsFromId(@RequestBody int[] questionIds);
 
     @PostMapping("question/getScore")
     public ResponseEntity<Integer> getScore(@RequestBody List<Response> responses);
+
+    @PostMapping("question/answerKey")
+    public ResponseEntity<List<AnswerKeyEntry>> getAnswerKey(@RequestBody int[] questionIds);
+
+    @GetMapping("question/changes")
+    public ResponseEntity<QuestionChanges> getChanges(@RequestParam long since, @RequestParam int afterId,
+                                                      @RequestParam int limit);
+
+    @PostMapping("question/getScores")
+    public ResponseEntity<List<Integer>> getScores(@RequestBody List<List<Response>> submissions);
 }
@@ -0,0 +1,67 @@
+package com.dmaddi.quizservice.grpc;
+
+import com.dmaddi.quizservice.model.QuestionWrapper;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads quiz questions from question-service's QuestionStream gRPC service over a long-lived,
+ * multiplexed HTTP/2 channel resolved through Eureka. Questions arrive in id order and each one
+ * is written straight into its slot (or slots, for a repeated id) of the quiz's order.
+ */
+@Component
+public class QuestionGrpcClient {
+
+    @GrpcClient("question-service")
+    private QuestionStreamGrpc.QuestionStreamBlockingStub questionStream;
+
+    @Value("${quiz.question-client.grpc-deadline:5s}")
+    private Duration deadline;
+
+    public List<QuestionWrapper> getQuestionsFromId(int[] questionIds) {
+        QuestionIdsRequest.Builder request = QuestionIdsRequest.newBuilder();
+        for(int id: questionIds)
+            request.addIds(id);
+
+        // (id << 32 | position) sorted, so the slots of an id are found with one binary search
+        long[] slots = new long[questionIds.length];
+        for(int i = 0; i < questionIds.length; i++)
+            slots[i] = (long) questionIds[i] << 32 | i;
+        Arrays.sort(slots);
+
+        QuestionWrapper[] questions = new QuestionWrapper[questionIds.length];
+        Iterator<QuestionMessage> stream = questionStream
+                .withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                .streamQuestions(request.build());
+        while(stream.hasNext()) {
+            QuestionMessage message = stream.next();
+            QuestionWrapper question = new QuestionWrapper(message.getId(), message.getQuestionTitle(),
+                    message.getOption1(), message.getOption2(), message.getOption3(), message.getOption4());
+            int id = message.getId();
+            for(int slot = firstSlot(slots, id); slot < slots.length && (int) (slots[slot] >> 32) == id; slot++)
+                questions[(int) slots[slot]] = question;
+        }
+        return Arrays.asList(questions);
+    }
+
+    private static int firstSlot(long[] slots, int id) {
+        long key = (long) id << 32;
+        int low = 0;
+        int high = slots.length;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(slots[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
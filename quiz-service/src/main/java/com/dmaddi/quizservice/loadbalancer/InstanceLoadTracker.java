@@ -0,0 +1,103 @@
+package com.dmaddi.quizservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance load of one load-balanced service: requests in flight, a peak-sensitive EWMA of
+ * response time and outlier ejection. Written by {@link LatencyTrackingLifecycle} as requests
+ * complete, read by {@link LatencyAwareLoadBalancer} when choosing an instance.
+ */
+public class InstanceLoadTracker {
+
+    private final ConcurrentMap<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+    private final long decayNanos;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final long maxEjectionNanos;
+
+    public InstanceLoadTracker(Duration decay, int failureThreshold, Duration ejection, Duration maxEjection) {
+        this.decayNanos = decay.toNanos();
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = ejection.toNanos();
+        this.maxEjectionNanos = maxEjection.toNanos();
+    }
+
+    public InstanceLoad get(ServiceInstance instance) {
+        return loads.computeIfAbsent(key(instance), k -> new InstanceLoad());
+    }
+
+    /** Drops the load of instances that are no longer registered. */
+    public void retain(Collection<ServiceInstance> instances) {
+        if(loads.size() <= instances.size())
+            return;
+        Set<String> live = instances.stream().map(InstanceLoadTracker::key).collect(Collectors.toSet());
+        loads.keySet().retainAll(live);
+    }
+
+    static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    public class InstanceLoad {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private double ewmaNanos;
+        private long lastUpdateNanos = System.nanoTime();
+        private int consecutiveFailures;
+        private int ejections;
+        private volatile long ejectedUntilNanos;
+
+        void start() {
+            inFlight.incrementAndGet();
+        }
+
+        synchronized void complete(long latencyNanos, boolean failed) {
+            inFlight.decrementAndGet();
+            long now = System.nanoTime();
+            if(latencyNanos >= 0) {
+                // peak EWMA: jump up immediately on a slow response, decay back down over time
+                if(latencyNanos > ewmaNanos) {
+                    ewmaNanos = latencyNanos;
+                } else {
+                    double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+                    ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+                }
+                lastUpdateNanos = now;
+            }
+            if(!failed) {
+                consecutiveFailures = 0;
+                ejections = 0;
+            } else if(++consecutiveFailures >= failureThreshold) {
+                // back off exponentially for instances that keep failing after they come back
+                long period = Math.min(ejectionNanos << Math.min(ejections, 16), maxEjectionNanos);
+                ejectedUntilNanos = now + period;
+                ejections++;
+                consecutiveFailures = 0;
+            }
+        }
+
+        boolean isEjected(long now) {
+            return now - ejectedUntilNanos < 0;
+        }
+
+        /** Expected wait for a new request: smoothed latency scaled by the queue it joins. */
+        synchronized double cost(long now) {
+            double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+            return (ewmaNanos * weight + 1) * (inFlight.get() + 1);
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dmaddi.quizservice.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer for QUESTION-SERVICE, used by the Feign client and the reactive WebClient alike.
+ * quiz.loadbalancer.strategy=latency-aware (the default) selects {@link LatencyAwareLoadBalancer};
+ * round-robin restores Spring Cloud's default. Deliberately not a @Configuration: it is only
+ * applied through the @LoadBalancerClient on {@link com.dmaddi.quizservice.QuizServiceApplication}
+ * and so lives in the per-service child context.
+ */
+public class LatencyAwareLoadBalancerConfig {
+
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(
+            @Value("${quiz.loadbalancer.ewma-decay:10s}") String decay,
+            @Value("${quiz.loadbalancer.failure-threshold:3}") int failureThreshold,
+            @Value("${quiz.loadbalancer.ejection-time:10s}") String ejectionTime,
+            @Value("${quiz.loadbalancer.max-ejection-time:2m}") String maxEjectionTime) {
+        // The child context has no Boot conversion service, so "10s" is parsed here rather than injected as a Duration.
+        return new InstanceLoadTracker(DurationStyle.detectAndParse(decay), failureThreshold,
+                DurationStyle.detectAndParse(ejectionTime), DurationStyle.detectAndParse(maxEjectionTime));
+    }
+
+    @Bean
+    public LatencyTrackingLifecycle latencyTrackingLifecycle(InstanceLoadTracker tracker) {
+        return new LatencyTrackingLifecycle(tracker);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> questionServiceLoadBalancer(
+            Environment environment, LoadBalancerClientFactory loadBalancerClientFactory, InstanceLoadTracker tracker,
+            @Value("${quiz.loadbalancer.strategy:latency-aware}") String strategy) {
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        if("round-robin".equalsIgnoreCase(strategy))
+            return new RoundRobinLoadBalancer(loadBalancerClientFactory.getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(name, ServiceInstanceListSupplier.class), name, tracker);
+    }
+}
@@ -0,0 +1,60 @@
+package com.dmaddi.quizservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+
+/**
+ * Feeds {@link InstanceLoadTracker} from the load balancer's request lifecycle, which both the
+ * Feign client and the @LoadBalanced WebClient report to. A 5xx response or an I/O failure counts
+ * towards ejecting the instance; 4xx responses are the caller's fault and do not.
+ */
+public class LatencyTrackingLifecycle implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final InstanceLoadTracker tracker;
+
+    public LatencyTrackingLifecycle(InstanceLoadTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if(!lbResponse.hasServer())
+            return;
+        request.getContext().setRequestStartTime(System.nanoTime());
+        tracker.get(lbResponse.getServer()).start();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        if(completionContext.status() == CompletionContext.Status.DISCARD
+                || completionContext.getLoadBalancerResponse() == null
+                || !completionContext.getLoadBalancerResponse().hasServer())
+            return;
+        long startNanos = completionContext.getLoadBalancerRequest() != null
+                ? completionContext.getLoadBalancerRequest().getContext().getRequestStartTime() : 0;
+        long latencyNanos = startNanos > 0 ? System.nanoTime() - startNanos : -1;
+
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED;
+        ResponseData response = completionContext.getClientResponse();
+        if(response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError())
+            failed = true;
+
+        tracker.get(completionContext.getLoadBalancerResponse().getServer()).complete(latencyNanos, failed);
+    }
+}
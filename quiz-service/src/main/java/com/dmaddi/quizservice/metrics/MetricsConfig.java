@@ -0,0 +1,25 @@
+package com.dmaddi.quizservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request SQL statement counting: datasource-micrometer's DataSource proxy reports each
+ * statement to the listener and the filter records the total once the request is done.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MetricsConfig {
+
+    @Bean
+    public QueryCountingListener queryCountingListener() {
+        return new QueryCountingListener();
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(MeterRegistry meterRegistry) {
+        return new QueryCountFilter(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.dmaddi.quizservice.metrics;
+
+/**
+ * Per-thread count of the JDBC statements run while a request is being handled. Counting is off
+ * outside {@link #start()}/{@link #stop()}, so the attempt writers, scorers and pollers are not
+ * counted.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if(count != null)
+            count[0]++;
+    }
+
+    /**
+     * Statements counted since {@link #start()} on this thread, or -1 if counting was not started.
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? -1 : count[0];
+    }
+}
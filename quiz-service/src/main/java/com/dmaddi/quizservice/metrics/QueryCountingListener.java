@@ -0,0 +1,24 @@
+package com.dmaddi.quizservice.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts every statement executed through the proxied DataSource into the {@link QueryCounter}
+ * of the current thread. Most of quiz-service's SQL goes through JdbcTemplate (attempts, answer
+ * keys), which a Hibernate statement inspector would not see. A JDBC batch counts once.
+ */
+public class QueryCountingListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryCounter.increment();
+    }
+}
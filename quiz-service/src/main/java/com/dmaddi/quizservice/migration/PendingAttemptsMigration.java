@@ -0,0 +1,38 @@
+package com.dmaddi.quizservice.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * One-off fill of {@code pending_attempt} with the attempts stored before it existed that still
+ * have no result. Attempts already listed are skipped, so running it again is harmless. Enable
+ * with {@code quiz.migration.pending-attempts=true} on the first start of the new version.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "quiz.migration.pending-attempts", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PendingAttemptsMigration implements ApplicationRunner {
+
+    private static final String COPY_PENDING = "INSERT INTO pending_attempt (attempt_id, submitted_at) " +
+            "SELECT a.id, a.submitted_at FROM quiz_attempt a " +
+            "WHERE NOT EXISTS (SELECT 1 FROM attempt_result r WHERE r.attempt_id = a.id) " +
+            "ON CONFLICT (attempt_id) DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int migrated = jdbcTemplate.update(COPY_PENDING);
+        log.info("Listed {} unscored attempts in pending_attempt", migrated);
+    }
+}
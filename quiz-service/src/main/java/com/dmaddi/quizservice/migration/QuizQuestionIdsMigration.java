@@ -0,0 +1,46 @@
+package com.dmaddi.quizservice.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * One-off copy of question ids from the old {@code quiz_question_ids} element-collection table
+ * into the {@code quiz.question_ids} array column. Only quizzes whose array is still empty are
+ * touched, so running it again is harmless. Enable with {@code quiz.migration.question-ids=true}
+ * and drop the old table once every instance runs the new mapping.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "quiz.migration.question-ids", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class QuizQuestionIdsMigration implements ApplicationRunner {
+
+    private static final String OLD_TABLE_EXISTS = "SELECT to_regclass('quiz_question_ids') IS NOT NULL";
+
+    private static final String COPY_IDS = "UPDATE quiz q SET question_ids = " +
+            "(SELECT array_agg(o.question_ids ORDER BY o.ctid) FROM quiz_question_ids o WHERE o.quiz_id = q.id) " +
+            "WHERE (q.question_ids IS NULL OR cardinality(q.question_ids) = 0) " +
+            "AND EXISTS (SELECT 1 FROM quiz_question_ids o WHERE o.quiz_id = q.id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Boolean oldTableExists = jdbcTemplate.queryForObject(OLD_TABLE_EXISTS, Boolean.class);
+        if(!Boolean.TRUE.equals(oldTableExists)) {
+            log.info("No quiz_question_ids table found, nothing to migrate");
+            return;
+        }
+        int migrated = jdbcTemplate.update(COPY_IDS);
+        log.info("Copied question ids of {} quizzes into quiz.question_ids", migrated);
+    }
+}
@@ -0,0 +1,25 @@
+package com.dmaddi.quizservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far the answer keys have been invalidated along question-service's change feed, shared by
+ * every instance. A single row (id 1), written by AnswerKeyDao with an upsert that only moves
+ * the position forward.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "answer_key_change_position")
+public class AnswerKeyChangePosition {
+    @Id
+    private Integer id;
+
+    // epoch millis of question-service's clock
+    @Column(name = "as_of", nullable = false)
+    private long asOf;
+}
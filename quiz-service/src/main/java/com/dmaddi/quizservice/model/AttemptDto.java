@@ -0,0 +1,15 @@
+package com.dmaddi.quizservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttemptDto {
+    private Long attemptId;
+    private Integer quizId;
+    private AttemptStatus status;
+    private Integer score;
+}
@@ -0,0 +1,32 @@
+package com.dmaddi.quizservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a {@link QuizAttempt}, inserted once when scoring finishes. An attempt without a
+ * result row is still pending.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "attempt_result")
+public class AttemptResult {
+    @Id
+    @Column(name = "attempt_id")
+    private Long attemptId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AttemptStatus status;
+
+    private Integer score;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+}
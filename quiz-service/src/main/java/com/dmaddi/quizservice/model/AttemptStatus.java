@@ -0,0 +1,8 @@
+package com.dmaddi.quizservice.model;
+
+public enum AttemptStatus {
+    PENDING,
+    SCORED,
+    REJECTED,
+    FAILED
+}
@@ -0,0 +1,31 @@
+package com.dmaddi.quizservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Marks a {@link QuizAttempt} that has no {@link AttemptResult} yet. Inserted with the attempt and
+ * deleted with its result, so the recovery sweep reads this small table instead of anti-joining
+ * every attempt ever made against its result. claimedUntil is the lease of the instance scoring
+ * it; an attempt is only claimed by another instance once the lease has run out.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "pending_attempt")
+public class PendingAttempt {
+    @Id
+    @Column(name = "attempt_id")
+    private Long attemptId;
+
+    @Column(name = "submitted_at", nullable = false)
+    private Instant submittedAt;
+
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+}
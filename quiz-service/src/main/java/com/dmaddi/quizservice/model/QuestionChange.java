@@ -0,0 +1,18 @@
+package com.dmaddi.quizservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A changed question and the updated_at of its latest change; the pair identifies one change.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionChange {
+    private int id;
+    private Instant updatedAt;
+}
@@ -0,0 +1,15 @@
+package com.dmaddi.quizservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionChanges {
+    private long asOf;
+    private List<QuestionChange> changes;
+}
@@ -0,0 +1,18 @@
+package com.dmaddi.quizservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionSelection {
+    private String category;
+    private Integer numQuestions;
+    // difficulty level -> number of questions; when set, numQuestions is optional and must match the sum
+    private Map<String, Integer> difficulties;
+    private boolean stratified;
+}
@@ -2,8 +2,8 @@ package com.dmaddi.quizservice.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
-
-import java.util.List;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Entity
 @Data
@@ -13,7 +13,22 @@ public class Quiz {
     private Integer id;
     private String title;
 
-    @ElementCollection
-    private List<Integer> questionIds;
+    // Stored as a Postgres integer[] column on the quiz row, so a quiz loads in one row read.
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "question_ids", columnDefinition = "integer[]")
+    private int[] questionIds;
+
+    // Salted digests of the right answers, aligned with questionIds (see QuizAnswerKey). Null
+    // until built, and again after question-service reports a change to one of the questions.
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "answer_key", columnDefinition = "bigint[]")
+    private long[] answerKey;
+
+    @Column(name = "answer_key_salt")
+    private Long answerKeySalt;
+
+    // Bumped by every invalidation; a key is only stored if no invalidation happened while it was built.
+    @Column(name = "answer_key_generation", nullable = false, columnDefinition = "integer default 0")
+    private int answerKeyGeneration;
 
 }
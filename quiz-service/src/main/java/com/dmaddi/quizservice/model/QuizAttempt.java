@@ -0,0 +1,40 @@
+package com.dmaddi.quizservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * A submission as received, written once and never updated. The responses are kept as two
+ * parallel arrays (question id, answer) on the row. Its outcome is a separate
+ * {@link AttemptResult} row.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "quiz_attempt", indexes = @Index(name = "quiz_attempt_quiz_id_idx", columnList = "quiz_id"))
+public class QuizAttempt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Integer quizId;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "question_ids", columnDefinition = "integer[]", nullable = false)
+    private int[] questionIds;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "answers", columnDefinition = "text[]", nullable = false)
+    private String[] answers;
+
+    @Column(name = "submitted_at", nullable = false)
+    private Instant submittedAt;
+}
@@ -2,9 +2,13 @@ package com.dmaddi.quizservice.model;
 
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 public class QuizDto {
     private String category;
     private Integer numQuestions;
+    // optional difficulty level -> number of questions, for a mixed-difficulty quiz
+    private Map<String, Integer> difficulties;
     private String title;
 }
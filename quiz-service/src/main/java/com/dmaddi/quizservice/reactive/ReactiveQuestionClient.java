@@ -0,0 +1,115 @@
+package com.dmaddi.quizservice.reactive;
+
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.model.QuestionSelection;
+import com.dmaddi.quizservice.model.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking counterpart of {@link com.dmaddi.quizservice.client.QuestionClient}, resolving
+ * QUESTION-SERVICE through the same Eureka-backed load balancer. Each call runs under the same
+ * per-method TimeLimiter and the same questionService bulkhead and circuit breaker, and fails
+ * with QuestionServiceUnavailableException when they turn it away.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveQuestionClient {
+
+    private static final String BASE_URL = "http://QUESTION-SERVICE/question";
+    private static final String BACKEND = "questionService";
+
+    @Autowired
+    @LoadBalanced
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private TimeLimiterRegistry timeLimiterRegistry;
+
+    private WebClient webClient;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+
+    @PostConstruct
+    void init() {
+        webClient = webClientBuilder.baseUrl(BASE_URL).build();
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(BACKEND);
+        bulkhead = bulkheadRegistry.bulkhead(BACKEND);
+    }
+
+    /**
+     * Questions for a new quiz, checked by question-service against its live category counts.
+     * Fails with WebClientResponseException.NotFound for an unknown category and
+     * WebClientResponseException.Conflict when it does not hold enough questions.
+     */
+    public Mono<int[]> selectQuestions(QuestionSelection selection) {
+        return call("generate", webClient.post()
+                .uri("/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(selection)
+                .retrieve()
+                .bodyToMono(int[].class));
+    }
+
+    /**
+     * Returns question-service's JSON body untouched; quiz-service only stores and re-serves it.
+     */
+    public Mono<byte[]> getQuestionsFromId(int[] questionIds) {
+        return call("getQuestions", webClient.post()
+                .uri("/getQuestions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(questionIds)
+                .retrieve()
+                .bodyToMono(byte[].class));
+    }
+
+    public Mono<ResponseEntity<Integer>> getScore(List<Response> responses) {
+        return call("getScore", webClient.post()
+                .uri("/getScore")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(responses)
+                .retrieve()
+                .toEntity(Integer.class))
+                // question-service rejected the submission (unknown or duplicate ids)
+                .onErrorResume(WebClientResponseException.BadRequest.class,
+                        e -> Mono.just(new ResponseEntity<>(0, HttpStatus.BAD_REQUEST)));
+    }
+
+    private <T> Mono<T> call(String method, Mono<T> request) {
+        return request
+                .transformDeferred(TimeLimiterOperator.of(timeLimiterRegistry.timeLimiter(method)))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(e -> e instanceof CallNotPermittedException || e instanceof BulkheadFullException
+                                || e instanceof TimeoutException,
+                        e -> new QuestionServiceUnavailableException(method, e));
+    }
+}
@@ -0,0 +1,51 @@
+package com.dmaddi.quizservice.reactive;
+
+import com.dmaddi.quizservice.model.QuizDto;
+import com.dmaddi.quizservice.model.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("quiz")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveQuizController {
+
+    @Autowired
+    private ReactiveQuizService reactiveQuizService;
+
+    @PostMapping("create")
+    public Mono<ResponseEntity<String>> createQuiz(@RequestBody QuizDto quizDto){
+        return reactiveQuizService.createQuiz(quizDto.getCategory(), quizDto.getNumQuestions(), quizDto.getDifficulties(),
+                quizDto.getTitle());
+    }
+
+    @GetMapping("get/{id}")
+    public Mono<ResponseEntity<byte[]>> getQuizQuestions(@PathVariable Integer id,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return reactiveQuizService.getQuizQuestions(id, ifNoneMatch, acceptEncoding);
+    }
+
+    @PostMapping("submit/{id}")
+    public Mono<ResponseEntity<Integer>> submitQuiz(@PathVariable Integer id, @RequestBody List<Response> responses) {
+        return reactiveQuizService.calculateResult(id, responses);
+    }
+
+    /**
+     * Attempts (submit, result, SSE events) are only served by the servlet stack; answer right
+     * away instead of letting them fall through to a 404 that reads like an unknown attempt.
+     */
+    @RequestMapping("attempt/**")
+    public Mono<ResponseEntity<Void>> attemptsNotSupported() {
+        return Mono.error(new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                "Quiz attempts are not available with the reactive profile"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.dmaddi.quizservice.reactive;
+
+import com.dmaddi.quizservice.scoring.QuizAnswerKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC access to the same quiz table the JPA stack uses (title, the integer[] of question ids
+ * and the answer key columns AnswerKeyBuilder fills in).
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveQuizDao {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Integer> insert(String title, int[] questionIds) {
+        Integer[] ids = new Integer[questionIds.length];
+        for(int i = 0; i < questionIds.length; i++)
+            ids[i] = questionIds[i];
+
+        return databaseClient.sql("INSERT INTO quiz (title, question_ids) VALUES (:title, :questionIds) RETURNING id")
+                .bind("title", title)
+                .bind("questionIds", ids)
+                .map(row -> row.get("id", Integer.class))
+                .one();
+    }
+
+    public Mono<int[]> findQuestionIds(Integer quizId) {
+        return databaseClient.sql("SELECT question_ids FROM quiz WHERE id = :id")
+                .bind("id", quizId)
+                .map(row -> toIntArray(row.get("question_ids", Integer[].class)))
+                .one();
+    }
+
+    /**
+     * The quiz's key as QuizService builds it from the JPA entity; empty when the quiz does not exist.
+     */
+    public Mono<QuizAnswerKey> findAnswerKey(Integer quizId) {
+        return databaseClient.sql("SELECT question_ids, answer_key, answer_key_salt FROM quiz WHERE id = :id")
+                .bind("id", quizId)
+                .map(row -> {
+                    Long[] digests = row.get("answer_key", Long[].class);
+                    long[] answerKey = null;
+                    if(digests != null) {
+                        answerKey = new long[digests.length];
+                        for(int i = 0; i < answerKey.length; i++)
+                            answerKey[i] = digests[i] == null ? 0 : digests[i];
+                    }
+                    return QuizAnswerKey.of(toIntArray(row.get("question_ids", Integer[].class)), answerKey,
+                            row.get("answer_key_salt", Long.class));
+                })
+                .one();
+    }
+
+    private static int[] toIntArray(Integer[] ids) {
+        int[] values = new int[ids == null ? 0 : ids.length];
+        for(int i = 0; i < values.length; i++)
+            values[i] = ids[i];
+        return values;
+    }
+}
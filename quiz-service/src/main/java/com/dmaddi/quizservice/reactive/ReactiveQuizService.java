@@ -0,0 +1,140 @@
+package com.dmaddi.quizservice.reactive;
+
+import com.dmaddi.quizservice.cache.QuizPayload;
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.model.QuestionSelection;
+import com.dmaddi.quizservice.model.Response;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive implementation of the quiz endpoints. Same contract as QuizService, but no call
+ * blocks a thread: R2DBC for the quiz table and WebClient for question-service. Question
+ * payloads go through an async cache, so concurrent misses for a quiz share one load, and the
+ * last good payload is served while question-service is unavailable. Submissions are checked
+ * and scored against the quiz row's answer key; a quiz whose key is not built yet is scored by
+ * question-service (AnswerKeyBuilder only runs on the servlet stack).
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveQuizService {
+
+    @Autowired
+    private ReactiveQuizDao reactiveQuizDao;
+
+    @Autowired
+    private ReactiveQuestionClient questionClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${quiz.cache.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${quiz.cache.expire-after-access:1h}")
+    private Duration expireAfterAccess;
+
+    @Value("${quiz.cache.stale-max-weight-bytes:33554432}")
+    private long staleMaxWeightBytes;
+
+    @Value("${quiz.http.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    @Value("${quiz.http.max-age:5m}")
+    private Duration httpMaxAge;
+
+    private AsyncLoadingCache<Integer, QuizPayload> cache;
+
+    // Last payload successfully loaded per quiz, as in QuizQuestionCache.
+    private Cache<Integer, QuizPayload> stalePayloads;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Integer id, QuizPayload payload) -> payload.weight())
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .buildAsync((quizId, executor) -> load(quizId).toFuture());
+        stalePayloads = Caffeine.newBuilder()
+                .maximumWeight(staleMaxWeightBytes)
+                .weigher((Integer id, QuizPayload payload) -> payload.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "quizQuestions");
+        CaffeineCacheMetrics.monitor(meterRegistry, stalePayloads, "quizQuestionsStale");
+    }
+
+    /**
+     * Creates a quiz of numQ questions from the category, or of an exact count per difficulty
+     * level, answering an impossible quiz the way QuizService does.
+     */
+    public Mono<ResponseEntity<String>> createQuiz(String category, Integer numQ, Map<String, Integer> difficulties, String title) {
+        return questionClient.selectQuestions(new QuestionSelection(category, numQ, difficulties, false))
+                .flatMap(questionIds -> reactiveQuizDao.insert(title, questionIds))
+                .doOnNext(quizId -> cache.get(quizId))
+                .thenReturn(new ResponseEntity<>("Success", HttpStatus.CREATED))
+                .onErrorResume(WebClientResponseException.BadRequest.class,
+                        e -> Mono.just(new ResponseEntity<>("Invalid number of questions", HttpStatus.BAD_REQUEST)))
+                .onErrorResume(WebClientResponseException.NotFound.class,
+                        e -> Mono.just(new ResponseEntity<>("Unknown category", HttpStatus.NOT_FOUND)))
+                .onErrorResume(WebClientResponseException.Conflict.class,
+                        e -> Mono.just(new ResponseEntity<>("Not enough questions", HttpStatus.CONFLICT)));
+    }
+
+    public Mono<ResponseEntity<byte[]>> getQuizQuestions(Integer id, String ifNoneMatch, String acceptEncoding) {
+        CacheControl cacheControl = CacheControl.maxAge(httpMaxAge).cachePublic();
+        return Mono.fromFuture(() -> cache.get(id))
+                .map(payload -> payload.toResponse(ifNoneMatch, acceptEncoding, cacheControl))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * NOT_FOUND for an unknown quiz and BAD_REQUEST for responses that are not distinct questions
+     * of it (both with score 0), otherwise the score.
+     */
+    public Mono<ResponseEntity<Integer>> calculateResult(Integer id, List<Response> responses) {
+        return reactiveQuizDao.findAnswerKey(id)
+                .flatMap(answerKey -> {
+                    if(!answerKey.accepts(responses))
+                        return Mono.just(new ResponseEntity<>(0, HttpStatus.BAD_REQUEST));
+                    if(answerKey.isScorable())
+                        return Mono.just(new ResponseEntity<>(answerKey.score(responses), HttpStatus.OK));
+                    return questionClient.getScore(responses);
+                })
+                .defaultIfEmpty(new ResponseEntity<>(0, HttpStatus.NOT_FOUND));
+    }
+
+    private Mono<QuizPayload> load(Integer quizId) {
+        return reactiveQuizDao.findQuestionIds(quizId)
+                .flatMap(questionIds -> questionClient.getQuestionsFromId(questionIds)
+                        .map(json -> QuizPayload.of(json, gzipMinBytes))
+                        .doOnNext(payload -> stalePayloads.put(quizId, payload))
+                        .onErrorResume(QuestionServiceUnavailableException.class, e -> {
+                            QuizPayload stale = stalePayloads.getIfPresent(quizId);
+                            if(stale == null)
+                                return Mono.error(e);
+                            log.warn("Serving stale questions for quiz {}: {}", quizId, e.getMessage());
+                            return Mono.just(stale);
+                        }));
+    }
+}
@@ -0,0 +1,100 @@
+package com.dmaddi.quizservice.scoring;
+
+import com.dmaddi.quizservice.client.QuestionClient;
+import com.dmaddi.quizservice.dao.QuizDao;
+import com.dmaddi.quizservice.model.AnswerKeyEntry;
+import com.dmaddi.quizservice.model.Quiz;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds a quiz's answer key from question-service's right answers and stores it on the quiz row.
+ * The key is stored only if the quiz's answer_key_generation is still the one read before the
+ * answers were fetched (see {@link AnswerKeyDao}). Rebuilds are single-flight per quiz.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AnswerKeyBuilder {
+
+    @Autowired
+    private QuizDao quizDao;
+
+    @Autowired
+    private QuestionClient questionClient;
+
+    @Autowired
+    private AnswerKeyDao answerKeyDao;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<Integer, CompletableFuture<Boolean>> rebuilds = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Builds and stores the key of a quiz as loaded from the database. Returns false if the
+     * quiz was invalidated meanwhile, in which case nothing was stored.
+     */
+    public boolean build(Quiz quiz) {
+        int[] questionIds = quiz.getQuestionIds() == null ? new int[0] : quiz.getQuestionIds();
+        List<AnswerKeyEntry> entries = questionClient.getAnswerKey(questionIds);
+        Map<Integer, String> answers = new HashMap<>(entries.size() * 2);
+        for(AnswerKeyEntry entry: entries)
+            answers.put(entry.getId(), entry.getRightAnswer());
+
+        long salt = random.nextLong();
+        long[] answerKey = new long[questionIds.length];
+        for(int i = 0; i < questionIds.length; i++)
+            answerKey[i] = QuizAnswerKey.digest(salt, answers.get(questionIds[i]));
+
+        boolean stored = answerKeyDao.store(quiz.getId(), quiz.getAnswerKeyGeneration(), answerKey, salt);
+        if(!stored)
+            log.debug("Answer key of quiz {} was invalidated while it was built", quiz.getId());
+        return stored;
+    }
+
+    /**
+     * Rebuilds the key of quiz id in the background, joining a rebuild already in progress.
+     * Completes with whether a key was stored; failures are logged and complete with false.
+     */
+    public CompletableFuture<Boolean> rebuildAsync(Integer id) {
+        CompletableFuture<Boolean> rebuild = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = rebuilds.putIfAbsent(id, rebuild);
+        if(running != null)
+            return running;
+
+        executor.execute(() -> {
+            try {
+                rebuild.complete(quizDao.findById(id).map(this::build).orElse(false));
+            } catch (RuntimeException e) {
+                log.warn("Could not rebuild the answer key of quiz {}", id, e);
+                rebuild.complete(false);
+            } finally {
+                rebuilds.remove(id, rebuild);
+            }
+        });
+        return rebuild;
+    }
+}
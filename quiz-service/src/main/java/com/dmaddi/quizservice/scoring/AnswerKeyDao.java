@@ -0,0 +1,76 @@
+package com.dmaddi.quizservice.scoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes of the answer key columns of the quiz table. Storing is conditional on the generation
+ * the key was built from; invalidating clears the key and bumps the generation, so a build that
+ * raced with an invalidation is discarded instead of storing answers that are already stale.
+ * The tables are Hibernate's (Quiz, AnswerKeyChangePosition), and so is the question_ids GIN
+ * index (see {@link QuestionIdsIndexContributor}).
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AnswerKeyDao {
+
+    private static final String STORE_KEY = "UPDATE quiz SET answer_key = ?, answer_key_salt = ? " +
+            "WHERE id = ? AND answer_key_generation = ?";
+
+    private static final String INVALIDATE_KEYS = "UPDATE quiz SET answer_key = NULL, " +
+            "answer_key_generation = answer_key_generation + 1 WHERE question_ids && ? RETURNING id";
+
+    private static final String FIND_POSITION = "SELECT as_of FROM answer_key_change_position WHERE id = 1";
+
+    // instances poll concurrently; the position only moves forward
+    private static final String SAVE_POSITION = "INSERT INTO answer_key_change_position (id, as_of) VALUES (1, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET as_of = GREATEST(answer_key_change_position.as_of, EXCLUDED.as_of)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public boolean store(int quizId, int generation, long[] answerKey, long salt) {
+        Long[] digests = new Long[answerKey.length];
+        for(int i = 0; i < answerKey.length; i++)
+            digests[i] = answerKey[i];
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(STORE_KEY);
+            ps.setArray(1, connection.createArrayOf("bigint", digests));
+            ps.setLong(2, salt);
+            ps.setInt(3, quizId);
+            ps.setInt(4, generation);
+            return ps;
+        }) == 1;
+    }
+
+    /**
+     * Drops the answer key of every quiz containing one of the questions; returns those quizzes.
+     */
+    public List<Integer> invalidate(Collection<Integer> questionIds) {
+        Integer[] ids = questionIds.toArray(new Integer[0]);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INVALIDATE_KEYS);
+            ps.setArray(1, connection.createArrayOf("integer", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getInt(1));
+    }
+
+    /**
+     * Position (epoch millis) in question-service's change feed up to which the keys have been
+     * invalidated, by any instance; 0 if none has polled yet.
+     */
+    public long findChangePosition() {
+        List<Long> position = jdbcTemplate.queryForList(FIND_POSITION, Long.class);
+        return position.isEmpty() ? 0 : position.get(0);
+    }
+
+    public void saveChangePosition(long asOf) {
+        jdbcTemplate.update(SAVE_POSITION, asOf);
+    }
+}
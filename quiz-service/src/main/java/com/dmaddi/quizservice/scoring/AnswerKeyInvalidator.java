@@ -0,0 +1,126 @@
+package com.dmaddi.quizservice.scoring;
+
+import com.dmaddi.quizservice.cache.QuizQuestionCache;
+import com.dmaddi.quizservice.client.QuestionClient;
+import com.dmaddi.quizservice.model.QuestionChange;
+import com.dmaddi.quizservice.model.QuestionChanges;
+import com.dmaddi.quizservice.service.QuizService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows question-service's change feed (GET question/changes) and drops the answer keys of the
+ * quizzes using a changed question, in the database and in this instance's cache, along with
+ * their cached question payloads. Quizzes then score through question-service until their key is
+ * rebuilt. Readers holding a payload (browsers, the gateway cache) see the edit once
+ * quiz.http.max-age runs out.
+ * <p>
+ * The feed is read in pages of quiz.answer-key.changes-page-size ids. The position reached is
+ * stored in the quiz database, so a restart resumes where the instances left off instead of
+ * replaying every change ever made. The feed repeats a change on every poll for
+ * question.changes.overlap; each (id, updatedAt) pair is only acted on once, so a key rebuilt
+ * after a change is not dropped again by its repeats.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AnswerKeyInvalidator implements ApplicationRunner {
+
+    @Autowired
+    private QuestionClient questionClient;
+
+    @Autowired
+    private AnswerKeyDao answerKeyDao;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizQuestionCache quizQuestionCache;
+
+    @Value("${quiz.answer-key.poll-interval:5s}")
+    private Duration pollInterval;
+
+    @Value("${quiz.answer-key.changes-page-size:1000}")
+    private int changesPageSize;
+
+    private ScheduledExecutorService poller;
+    // -1 until read from answer_key_change_position
+    private volatile long since = -1;
+    // updatedAt of each change already applied, kept while the feed still repeats it; poller thread only
+    private final Map<Integer, Instant> applied = new HashMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quiz-answer-key-invalidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if(poller != null)
+            poller.shutdownNow();
+    }
+
+    void poll() {
+        try {
+            if(since < 0)
+                since = answerKeyDao.findChangePosition();
+            long asOf = -1;
+            int afterId = 0;
+            Map<Integer, Instant> seen = new HashMap<>();
+            List<QuestionChange> page;
+            do {
+                QuestionChanges changes = questionClient.getChanges(since, afterId, changesPageSize);
+                if(changes == null)
+                    return;
+                // the first page's asOf is the earliest, so nothing changed after it is skipped next time
+                if(asOf < 0)
+                    asOf = changes.getAsOf();
+                page = changes.getChanges() == null ? List.of() : changes.getChanges();
+                List<Integer> questionIds = new ArrayList<>(page.size());
+                for(QuestionChange change: page) {
+                    seen.put(change.getId(), change.getUpdatedAt());
+                    if(!change.getUpdatedAt().equals(applied.get(change.getId())))
+                        questionIds.add(change.getId());
+                }
+                if(!questionIds.isEmpty()) {
+                    List<Integer> quizIds = answerKeyDao.invalidate(questionIds);
+                    quizService.evictAnswerKeys(quizIds);
+                    quizQuestionCache.evict(quizIds);
+                    questionIds.forEach(id -> applied.put(id, seen.get(id)));
+                    log.debug("{} changed questions invalidated the answer keys of {} quizzes", questionIds.size(), quizIds.size());
+                }
+                if(!page.isEmpty())
+                    afterId = page.get(page.size() - 1).getId();
+            } while(page.size() >= changesPageSize);
+            // a change the feed no longer repeats has left its window and will not be served again
+            applied.keySet().retainAll(seen.keySet());
+            // only advance once the changes are applied, so a failed poll is retried from the same point
+            answerKeyDao.saveChangePosition(asOf);
+            since = asOf;
+        } catch (RuntimeException e) {
+            log.warn("Could not poll question changes since {}", since, e);
+        }
+    }
+}
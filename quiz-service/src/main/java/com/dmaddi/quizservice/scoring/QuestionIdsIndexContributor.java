@@ -0,0 +1,31 @@
+package com.dmaddi.quizservice.scoring;
+
+import org.hibernate.boot.ResourceStreamLocator;
+import org.hibernate.boot.model.relational.SimpleAuxiliaryDatabaseObject;
+import org.hibernate.boot.spi.AdditionalMappingContributions;
+import org.hibernate.boot.spi.AdditionalMappingContributor;
+import org.hibernate.boot.spi.InFlightMetadataCollector;
+import org.hibernate.boot.spi.MetadataBuildingContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+
+import java.util.Set;
+
+/**
+ * Adds the GIN index behind the {@code question_ids && ?} lookup of {@link AnswerKeyDao#invalidate}
+ * to the schema Hibernate manages, since {@code @Index} cannot declare an index method. It has no
+ * drop statement: ddl-auto=update drops and recreates auxiliary objects on every start, which
+ * would rebuild the index each time. Registered in META-INF/services.
+ */
+public class QuestionIdsIndexContributor implements AdditionalMappingContributor {
+
+    private static final String CREATE_QUESTION_IDS_INDEX =
+            "CREATE INDEX IF NOT EXISTS quiz_question_ids_gin_idx ON quiz USING gin (question_ids)";
+
+    @Override
+    public void contribute(AdditionalMappingContributions contributions, InFlightMetadataCollector metadata,
+                           ResourceStreamLocator resourceStreamLocator, MetadataBuildingContext buildingContext) {
+        contributions.contributeAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                metadata.getDatabase().getDefaultNamespace(), new String[]{CREATE_QUESTION_IDS_INDEX}, new String[0],
+                Set.of(PostgreSQLDialect.class.getName())));
+    }
+}
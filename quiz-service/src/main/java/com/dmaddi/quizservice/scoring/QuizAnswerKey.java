@@ -0,0 +1,113 @@
+package com.dmaddi.quizservice.scoring;
+
+import com.dmaddi.quizservice.model.Response;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-memory scoring artifact of one quiz: its question ids, sorted, and for each one a 64-bit
+ * digest of the right answer salted per quiz, so a quiz row never holds the answers themselves.
+ * A question without a right answer has digest 0, which no response can match. Scoring hashes
+ * each response into its question's slot and counts equal slots in one branch-free pass over two
+ * long arrays. Without digests (key not built yet, or invalidated) the key still validates
+ * submissions but cannot score them.
+ */
+public class QuizAnswerKey {
+
+    private final int[] sortedIds;
+    private final long[] digests;
+    private final long salt;
+
+    private QuizAnswerKey(int[] sortedIds, long[] digests, long salt) {
+        this.sortedIds = sortedIds;
+        this.digests = digests;
+        this.salt = salt;
+    }
+
+    /**
+     * Builds the in-memory key from a quiz row, where answerKey (if present) is aligned with
+     * questionIds in the quiz's own order.
+     */
+    public static QuizAnswerKey of(int[] questionIds, long[] answerKey, Long salt) {
+        int[] ids = questionIds == null ? new int[0] : questionIds;
+        boolean scorable = answerKey != null && salt != null && answerKey.length == ids.length;
+
+        Integer[] order = new Integer[ids.length];
+        for(int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(ids[a], ids[b]));
+
+        int[] sortedIds = new int[ids.length];
+        long[] digests = scorable ? new long[ids.length] : null;
+        for(int i = 0; i < order.length; i++) {
+            sortedIds[i] = ids[order[i]];
+            if(scorable)
+                digests[i] = answerKey[order[i]];
+        }
+        return new QuizAnswerKey(sortedIds, digests, scorable ? salt : 0);
+    }
+
+    public boolean contains(int questionId) {
+        return Arrays.binarySearch(sortedIds, questionId) >= 0;
+    }
+
+    /**
+     * Whether the responses answer distinct questions of this quiz; the check both the servlet
+     * and the reactive stack make before scoring a submission.
+     */
+    public boolean accepts(List<Response> responses) {
+        if(responses == null)
+            return false;
+        Set<Integer> answered = new HashSet<>(responses.size() * 2);
+        for(Response response: responses) {
+            if(response == null || response.getId() == null || !answered.add(response.getId())
+                    || !contains(response.getId()))
+                return false;
+        }
+        return true;
+    }
+
+    public boolean isScorable() {
+        return digests != null;
+    }
+
+    /**
+     * Number of right answers; the responses must already be checked to name distinct questions
+     * of this quiz.
+     */
+    public int score(List<Response> responses) {
+        long[] submitted = new long[digests.length];
+        for(Response response: responses) {
+            int slot = Arrays.binarySearch(sortedIds, response.getId());
+            if(slot >= 0 && response.getResponse() != null)
+                submitted[slot] = digest(salt, response.getResponse());
+        }
+        int score = 0;
+        for(int i = 0; i < digests.length; i++)
+            score += (digests[i] != 0 & digests[i] == submitted[i]) ? 1 : 0;
+        return score;
+    }
+
+    /**
+     * First 8 bytes of SHA-256(salt || UTF-8 answer), never 0; an empty answer has digest 0.
+     */
+    public static long digest(long salt, String answer) {
+        if(answer == null || answer.isEmpty())
+            return 0;
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(ByteBuffer.allocate(Long.BYTES).putLong(salt).array());
+            long digest = ByteBuffer.wrap(sha256.digest(answer.getBytes(StandardCharsets.UTF_8))).getLong();
+            return digest == 0 ? 1 : digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
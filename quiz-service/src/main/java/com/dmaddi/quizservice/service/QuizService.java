@@ -1,51 +1,178 @@
 package com.dmaddi.quizservice.service;
 
 
+import com.dmaddi.quizservice.batch.SubmissionBatcher;
+import com.dmaddi.quizservice.cache.QuizPayload;
+import com.dmaddi.quizservice.cache.QuizQuestionCache;
+import com.dmaddi.quizservice.client.QuestionClient;
 import com.dmaddi.quizservice.dao.QuizDao;
 
-import com.dmaddi.quizservice.feign.QuizInterface;
-import com.dmaddi.quizservice.model.QuestionWrapper;
+import com.dmaddi.quizservice.model.QuestionSelection;
 import com.dmaddi.quizservice.model.Quiz;
 import com.dmaddi.quizservice.model.Response;
+import com.dmaddi.quizservice.scoring.AnswerKeyBuilder;
+import com.dmaddi.quizservice.scoring.QuizAnswerKey;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class QuizService {
 
     @Autowired
     private QuizDao quizDao;
 
     @Autowired
-    private QuizInterface quizInterface;
+    private QuestionClient questionClient;
 
-    public ResponseEntity<String> createQuiz(String category, Integer numQ, String title) {
-        List<Integer> questions = quizInterface.getQuestionsForQuiz(category,numQ).getBody();
+    @Autowired
+    private QuizQuestionCache quizQuestionCache;
+
+    @Autowired
+    private SubmissionBatcher submissionBatcher;
+
+    @Autowired
+    private AnswerKeyBuilder answerKeyBuilder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${quiz.submit.batch.enabled:true}")
+    private boolean batchSubmissions;
+
+    @Value("${quiz.cache.question-ids-max-size:100000}")
+    private long questionIdsMaxSize;
+
+    // Question ids and answer key of each quiz, for checking and scoring submissions in-process.
+    // A quiz's questions never change; its key is evicted when one of their answers does.
+    private LoadingCache<Integer, QuizAnswerKey> answerKeys;
+
+    @PostConstruct
+    void init() {
+        answerKeys = Caffeine.newBuilder()
+                .maximumSize(questionIdsMaxSize)
+                .recordStats()
+                .build(id -> quizDao.findById(id)
+                        .map(quiz -> QuizAnswerKey.of(quiz.getQuestionIds(), quiz.getAnswerKey(), quiz.getAnswerKeySalt()))
+                        .orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, answerKeys, "quizAnswerKeys");
+    }
+
+    @Value("${quiz.http.max-age:5m}")
+    private Duration httpMaxAge;
+
+    /**
+     * Creates a quiz of numQ questions from the category, or of an exact count per difficulty
+     * level. question-service checks the request against its category counts before drawing,
+     * so an impossible quiz fails fast with NOT_FOUND or CONFLICT instead of coming out short.
+     */
+    public ResponseEntity<String> createQuiz(String category, Integer numQ, Map<String, Integer> difficulties, String title) {
+        int[] questions;
+        try {
+            questions = questionClient.selectQuestions(new QuestionSelection(category, numQ, difficulties, false));
+        } catch (FeignException.BadRequest e) {
+            return new ResponseEntity<>("Invalid number of questions", HttpStatus.BAD_REQUEST);
+        } catch (FeignException.NotFound e) {
+            return new ResponseEntity<>("Unknown category", HttpStatus.NOT_FOUND);
+        } catch (FeignException.Conflict e) {
+            return new ResponseEntity<>("Not enough questions", HttpStatus.CONFLICT);
+        }
 
         Quiz quiz = new Quiz();
         quiz.setTitle(title);
         quiz.setQuestionIds(questions);
 
         quizDao.save(quiz);
+        quizQuestionCache.preload(quiz.getId());
+        try {
+            answerKeyBuilder.build(quiz);
+        } catch (RuntimeException e) {
+            // the quiz scores through question-service until the key is rebuilt on first use
+            log.warn("Could not build the answer key of quiz {}", quiz.getId(), e);
+        }
 
         return new ResponseEntity<>("Success", HttpStatus.CREATED);
     }
 
-    public ResponseEntity<List<QuestionWrapper>> getQuizQuestions(Integer id) {
-        Optional<Quiz> quiz = quizDao.findById(id);
+    /**
+     * Serves the pre-encoded question list of a quiz, answering conditional requests with 304
+     * and sending the gzip copy to clients that accept it.
+     */
+    public ResponseEntity<byte[]> getQuizQuestions(Integer id, String ifNoneMatch, String acceptEncoding) {
+        QuizPayload payload = quizQuestionCache.get(id);
+        if(payload == null)
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+
+        return payload.toResponse(ifNoneMatch, acceptEncoding, CacheControl.maxAge(httpMaxAge).cachePublic());
+    }
+
+    public CompletableFuture<ResponseEntity<Integer>> calculateResult(Integer id, List<Response> responses) {
+        Optional<HttpStatus> rejection = checkResponses(id, responses);
+        if(rejection.isPresent())
+            return CompletableFuture.completedFuture(new ResponseEntity<>(0, rejection.get()));
+        return score(id, responses);
+    }
+
+    /**
+     * Scores responses already checked against quiz id. With the quiz's answer key in hand they
+     * are scored right here; otherwise a rebuild of the key is started and they go to
+     * question-service, batched with other submissions unless quiz.submit.batch.enabled=false.
+     */
+    public CompletableFuture<ResponseEntity<Integer>> score(Integer id, List<Response> responses) {
+        QuizAnswerKey answerKey = answerKeys.get(id);
+        if(answerKey != null && answerKey.isScorable())
+            return CompletableFuture.completedFuture(new ResponseEntity<>(answerKey.score(responses), HttpStatus.OK));
+        if(answerKey != null)
+            answerKeyBuilder.rebuildAsync(id).thenAccept(stored -> {
+                if(stored)
+                    answerKeys.invalidate(id);
+            });
+        return scoreRemotely(responses);
+    }
+
+    private CompletableFuture<ResponseEntity<Integer>> scoreRemotely(List<Response> responses) {
+        if(batchSubmissions)
+            return submissionBatcher.submit(responses);
+        return CompletableFuture.completedFuture(questionClient.getScore(responses));
+    }
 
-        List<Integer> questionIds = quiz.get().getQuestionIds();
-//        ResponseEntity<List<QuestionWrapper>> questionsForUser = quizInterface.getQuestionsFromId(questionIds);
-        return quizInterface.getQuestionsFromId(questionIds);
+    /**
+     * Checks that the responses answer distinct questions of quiz id. Returns NOT_FOUND for an
+     * unknown quiz, BAD_REQUEST for a response to a question outside it, empty if they are fine.
+     */
+    public Optional<HttpStatus> checkResponses(Integer id, List<Response> responses) {
+        QuizAnswerKey answerKey = id == null ? null : answerKeys.get(id);
+        if(answerKey == null)
+            return Optional.of(HttpStatus.NOT_FOUND);
+        if(!answerKey.accepts(responses))
+            return Optional.of(HttpStatus.BAD_REQUEST);
+        return Optional.empty();
     }
 
-    public ResponseEntity<Integer> calculateResult(Integer id, List<Response> responses) {
-//        ResponseEntity<Integer> score = quizInterface.getScore(responses);
-        return quizInterface.getScore(responses);
+    /**
+     * Drops the cached answer keys of these quizzes, so the next submission reloads them.
+     */
+    public void evictAnswerKeys(Collection<Integer> ids) {
+        answerKeys.invalidateAll(ids);
     }
 }
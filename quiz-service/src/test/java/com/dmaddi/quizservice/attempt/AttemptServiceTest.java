@@ -0,0 +1,134 @@
+package com.dmaddi.quizservice.attempt;
+
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.dao.AttemptDao;
+import com.dmaddi.quizservice.model.AttemptDto;
+import com.dmaddi.quizservice.model.AttemptResult;
+import com.dmaddi.quizservice.model.AttemptStatus;
+import com.dmaddi.quizservice.model.QuizAttempt;
+import com.dmaddi.quizservice.service.QuizService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AttemptServiceTest {
+
+    private AttemptDao attemptDao;
+    private QuizService quizService;
+    private AttemptService attemptService;
+
+    @BeforeEach
+    void createService() {
+        attemptDao = mock(AttemptDao.class);
+        quizService = mock(QuizService.class);
+        attemptService = new AttemptService();
+        ReflectionTestUtils.setField(attemptService, "attemptDao", attemptDao);
+        ReflectionTestUtils.setField(attemptService, "quizService", quizService);
+        ReflectionTestUtils.setField(attemptService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(attemptService, "writeWindow", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(attemptService, "writeMaxSize", 100);
+        ReflectionTestUtils.setField(attemptService, "writeQueueCapacity", 100);
+        ReflectionTestUtils.setField(attemptService, "workers", 2);
+        ReflectionTestUtils.setField(attemptService, "workerQueueCapacity", 100);
+        ReflectionTestUtils.setField(attemptService, "recoveryInterval", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(attemptService, "recoveryBatchSize", 10);
+        ReflectionTestUtils.setField(attemptService, "sseTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(attemptService, "watchPollInterval", Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void shutdown() {
+        ReflectionTestUtils.invokeMethod(attemptService, "shutdown");
+    }
+
+    @Test
+    @DisplayName("A pending attempt is picked up by the recovery sweep and its score stored")
+    void testRecovery_whenAttemptIsPending_scoresAndStoresResult() {
+        // Arrange
+        when(attemptDao.claimPending(anyInt())).thenReturn(List.of(attempt(7L)), List.of());
+        when(quizService.score(eq(1), any())).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(2)));
+
+        // Act
+        ReflectionTestUtils.invokeMethod(attemptService, "init");
+
+        // Assert
+        verify(attemptDao, timeout(5000)).insertResults(argThat(results -> results.size() == 1
+                && results.get(0).getAttemptId() == 7L
+                && results.get(0).getStatus() == AttemptStatus.SCORED
+                && results.get(0).getScore() == 2));
+    }
+
+    @Test
+    @DisplayName("An attempt question-service could not score stays pending and is scored by a later sweep")
+    void testRecovery_whenQuestionServiceIsUnavailable_retriesOnNextSweep() {
+        // Arrange
+        QuizAttempt attempt = attempt(8L);
+        when(attemptDao.claimPending(anyInt())).thenReturn(List.of(attempt));
+        when(quizService.score(eq(1), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new QuestionServiceUnavailableException("getScore", new RuntimeException("down"))))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(1)));
+
+        // Act
+        ReflectionTestUtils.invokeMethod(attemptService, "init");
+
+        // Assert
+        verify(quizService, timeout(5000).atLeast(2)).score(eq(1), any());
+        verify(attemptDao, timeout(5000)).insertResults(argThat((List<AttemptResult> results) -> results.stream()
+                .anyMatch(result -> result.getAttemptId() == 8L && result.getStatus() == AttemptStatus.SCORED)));
+        verify(attemptDao, atLeast(2)).claimPending(anyInt());
+        verify(attemptDao).releaseClaim(8L);
+    }
+
+    @Test
+    @DisplayName("A watcher is sent the result another instance stored for its attempt")
+    void testWatch_whenResultIsStoredElsewhere_sendsItToTheWatcher() throws InterruptedException {
+        // Arrange
+        AttemptDto pending = new AttemptDto(9L, 1, AttemptStatus.PENDING, null);
+        AttemptDto scored = new AttemptDto(9L, 1, AttemptStatus.SCORED, 2);
+        when(attemptDao.findAttempt(9L)).thenReturn(Optional.of(pending));
+        when(attemptDao.findResults(List.of(9L))).thenReturn(List.of(), List.of(scored));
+        ReflectionTestUtils.invokeMethod(attemptService, "init");
+
+        // Act
+        ResponseEntity<SseEmitter> response = attemptService.watch(9L);
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(attemptDao, timeout(5000).atLeast(2)).findResults(List.of(9L));
+        Map<?, ?> watchers = (Map<?, ?>) ReflectionTestUtils.getField(attemptService, "watchers");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(!watchers.isEmpty() && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        Assertions.assertTrue(watchers.isEmpty(), "Should have sent the result and closed the stream");
+    }
+
+    private static QuizAttempt attempt(long id) {
+        return new QuizAttempt(id, 1, new int[]{10, 11}, new String[]{"final", "def"}, Instant.now().minusSeconds(60));
+    }
+}
@@ -0,0 +1,166 @@
+package com.dmaddi.quizservice.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class MicroBatcherTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private MicroBatcher<Integer, Integer> batcher;
+
+    @AfterEach
+    void close() {
+        if(batcher != null)
+            batcher.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Items submitted together are handled as one batch and get their own result")
+    void testSubmit_whenItemsArriveWithinWindow_handlesThemTogether() throws Exception {
+        // Arrange
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        batcher = batcher(Duration.ofMillis(200), 10, items -> {
+            batches.add(items);
+            return items.stream().map(item -> item * 10).toList();
+        });
+
+        // Act
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for(int i = 1; i <= 3; i++)
+            results.add(batcher.submit(i));
+
+        // Assert
+        Assertions.assertEquals(List.of(10, 20, 30), List.of(results.get(0).get(5, TimeUnit.SECONDS),
+                results.get(1).get(5, TimeUnit.SECONDS), results.get(2).get(5, TimeUnit.SECONDS)),
+                "Each submitter should get the result of its own item");
+        Assertions.assertEquals(List.of(List.of(1, 2, 3)), batches, "Should handle the three items in one batch");
+    }
+
+    @Test
+    @DisplayName("A batch is cut as soon as it reaches the maximum size")
+    void testSubmit_whenBatchIsFull_cutsBeforeWindowEnds() throws Exception {
+        // Arrange
+        List<Integer> sizes = new CopyOnWriteArrayList<>();
+        batcher = batcher(Duration.ofSeconds(30), 2, items -> {
+            sizes.add(items.size());
+            return items;
+        });
+
+        // Act
+        CompletableFuture<Integer> first = batcher.submit(1);
+        CompletableFuture<Integer> second = batcher.submit(2);
+
+        // Assert
+        Assertions.assertEquals(2, second.get(5, TimeUnit.SECONDS), "Should not wait for the 30s window");
+        Assertions.assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(2), sizes);
+    }
+
+    @Test
+    @DisplayName("A failing handler fails every item of its batch")
+    void testSubmit_whenHandlerThrows_failsTheBatch() {
+        // Arrange
+        batcher = batcher(Duration.ofMillis(10), 10, items -> {
+            throw new IllegalStateException("database down");
+        });
+
+        // Act
+        CompletableFuture<Integer> result = batcher.submit(1);
+
+        // Assert
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("A handler returning the wrong number of results fails every item of its batch")
+    void testSubmit_whenResultCountDoesNotMatch_failsTheBatch() throws Exception {
+        // Arrange
+        batcher = batcher(Duration.ofMillis(200), 10, items -> items.subList(0, items.size() - 1));
+
+        // Act
+        CompletableFuture<Integer> first = batcher.submit(1);
+        CompletableFuture<Integer> second = batcher.submit(2);
+
+        // Assert
+        for(CompletableFuture<Integer> result: List.of(first, second)) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(IllegalStateException.class, e.getCause(),
+                    "Should not hand out results that cannot be matched to their items");
+        }
+    }
+
+    @Test
+    @DisplayName("A handler returning null fails every item of its batch")
+    void testSubmit_whenHandlerReturnsNull_failsTheBatch() {
+        // Arrange
+        batcher = batcher(Duration.ofMillis(10), 10, items -> null);
+
+        // Act
+        CompletableFuture<Integer> result = batcher.submit(1);
+
+        // Assert
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("A batch the executor rejects fails its items instead of leaving them waiting")
+    void testSubmit_whenExecutorRejects_failsTheBatch() {
+        // Arrange
+        executor.shutdown();
+        batcher = batcher(Duration.ofMillis(10), 10, items -> items);
+
+        // Act
+        CompletableFuture<Integer> result = batcher.submit(1);
+
+        // Assert
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Items are rejected once the queue is full or the batcher is closed")
+    void testSubmit_whenQueueIsFullOrClosed_rejects() {
+        // Arrange
+        // the batch runs on the dispatcher itself, so a blocked handler stops the queue draining
+        CompletableFuture<Void> blocked = new CompletableFuture<>();
+        batcher = new MicroBatcher<>("test.batcher", Duration.ofMillis(1), 1, 1, items -> {
+            blocked.join();
+            return items;
+        }, Runnable::run, new SimpleMeterRegistry());
+
+        // Act
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for(int i = 0; i < 10; i++)
+            results.add(batcher.submit(i));
+        batcher.close();
+        CompletableFuture<Integer> afterClose = batcher.submit(99);
+        blocked.complete(null);
+
+        // Assert
+        Assertions.assertTrue(results.stream().filter(CompletableFuture::isCompletedExceptionally).count() >= 8,
+                "With one item being handled and one queued, the rest should be turned away");
+        Assertions.assertTrue(afterClose.isCompletedExceptionally(), "Should reject items after close");
+    }
+
+    private MicroBatcher<Integer, Integer> batcher(Duration window, int maxBatchSize, Function<List<Integer>, List<Integer>> handler) {
+        return new MicroBatcher<>("test.batcher", window, maxBatchSize, 100, handler, executor, new SimpleMeterRegistry());
+    }
+}
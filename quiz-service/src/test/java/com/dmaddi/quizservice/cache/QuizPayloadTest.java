@@ -0,0 +1,65 @@
+package com.dmaddi.quizservice.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+public class QuizPayloadTest {
+
+    private static final byte[] JSON = "[{\"id\":7,\"questionTitle\":\"What is the size of an int in Java?\"}]"
+            .repeat(40).getBytes(StandardCharsets.UTF_8);
+
+    private final QuizPayload payload = QuizPayload.of(JSON, 1024);
+
+    @Test
+    @DisplayName("The gzip and identity representations carry different ETags")
+    void testToResponse_whenEncodingDiffers_usesOwnEtag() {
+        // Act
+        ResponseEntity<byte[]> gzipped = payload.toResponse(null, "gzip, deflate", CacheControl.noCache());
+        ResponseEntity<byte[]> identity = payload.toResponse(null, null, CacheControl.noCache());
+
+        // Assert
+        Assertions.assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertEquals(payload.getGzipEtag(), gzipped.getHeaders().getETag());
+        Assertions.assertEquals(payload.getEtag(), identity.getHeaders().getETag());
+        Assertions.assertTrue(payload.getGzipEtag().endsWith("-gz\""), "Should suffix the hash inside the quotes");
+        Assertions.assertNotEquals(payload.getEtag(), payload.getGzipEtag());
+    }
+
+    @Test
+    @DisplayName("Either ETag revalidates, answering with the ETag of the representation asked for")
+    void testToResponse_whenEitherEtagMatches_returnsNotModified() {
+        // Act
+        ResponseEntity<byte[]> fromGzip = payload.toResponse(payload.getGzipEtag(), null, CacheControl.noCache());
+        ResponseEntity<byte[]> fromIdentity = payload.toResponse("W/" + payload.getEtag(), "gzip", CacheControl.noCache());
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, fromGzip.getStatusCode());
+        Assertions.assertEquals(payload.getEtag(), fromGzip.getHeaders().getETag());
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, fromIdentity.getStatusCode());
+        Assertions.assertEquals(payload.getGzipEtag(), fromIdentity.getHeaders().getETag());
+        Assertions.assertFalse(payload.matches("\"something-else\""));
+    }
+
+    @Test
+    @DisplayName("Accept-Encoding q-values are honoured, q=0 refusing gzip")
+    void testAcceptsGzip_parsesQualityValues() {
+        // Assert
+        Assertions.assertTrue(QuizPayload.acceptsGzip("gzip"));
+        Assertions.assertTrue(QuizPayload.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        Assertions.assertTrue(QuizPayload.acceptsGzip("*"));
+        Assertions.assertFalse(QuizPayload.acceptsGzip("gzip;q=0"));
+        Assertions.assertFalse(QuizPayload.acceptsGzip("gzip; q=0.000, identity"));
+        Assertions.assertFalse(QuizPayload.acceptsGzip("*, gzip;q=0"), "An explicit gzip entry overrides *");
+        Assertions.assertFalse(QuizPayload.acceptsGzip("deflate, br"));
+        Assertions.assertFalse(QuizPayload.acceptsGzip(null));
+        Assertions.assertNull(payload.toResponse(null, "gzip;q=0", CacheControl.noCache())
+                .getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), "Should send identity when gzip is refused");
+    }
+}
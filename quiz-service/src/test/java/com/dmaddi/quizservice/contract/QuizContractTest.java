@@ -0,0 +1,164 @@
+package com.dmaddi.quizservice.contract;
+
+import com.dmaddi.quizservice.model.QuestionSelection;
+import com.dmaddi.quizservice.model.QuizDto;
+import com.dmaddi.quizservice.model.Response;
+import com.dmaddi.quizservice.scoring.QuizAnswerKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The quiz/ contract both stacks serve. Each subclass binds one controller (servlet or reactive)
+ * over mocked storage and question-service, and the same requests must get the same answers.
+ */
+public abstract class QuizContractTest {
+
+    protected static final int QUIZ_ID = 1;
+    protected static final long SALT = 42L;
+    protected static final int[] QUESTION_IDS = {12, 11, 10};
+
+    protected abstract WebTestClient client();
+
+    /** Stores quiz QUIZ_ID with these questions and answer key columns. */
+    protected abstract void givenQuiz(int[] questionIds, long[] answerKey, Long salt);
+
+    protected abstract void givenSelection(int[] questionIds);
+
+    /** question-service answers the selection with this 4xx status. */
+    protected abstract void givenSelectionRejected(int status);
+
+    protected abstract void givenQuestionServiceUnavailable();
+
+    protected abstract QuestionSelection sentSelection();
+
+    @Test
+    @DisplayName("Submitting to an unknown quiz returns 404 with score 0")
+    void testSubmit_whenQuizIsUnknown_returnsNotFound() {
+        // Act & Assert
+        submit(List.of(response(12, "final")))
+                .expectStatus().isNotFound()
+                .expectBody(Integer.class).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Submitting a response to a question outside the quiz returns 400 with score 0")
+    void testSubmit_whenQuestionIsNotInQuiz_returnsBadRequest() {
+        // Arrange
+        givenStoredQuiz();
+
+        // Act & Assert
+        submit(List.of(response(99, "final")))
+                .expectStatus().isBadRequest()
+                .expectBody(Integer.class).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Submitting two responses to one question returns 400")
+    void testSubmit_whenQuestionIsAnsweredTwice_returnsBadRequest() {
+        // Arrange
+        givenStoredQuiz();
+
+        // Act & Assert
+        submit(List.of(response(12, "final"), response(12, "final")))
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("A valid submission is scored against the quiz's answer key")
+    void testSubmit_whenResponsesAreValid_returnsScore() {
+        // Arrange
+        givenStoredQuiz();
+
+        // Act & Assert
+        submit(List.of(response(12, "final"), response(10, "def"), response(11, "64 bits")))
+                .expectStatus().isOk()
+                .expectBody(Integer.class).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Creating a quiz passes the difficulty mix on to question-service")
+    void testCreate_whenDifficultiesAreGiven_selectsByDifficulty() {
+        // Arrange
+        givenSelection(QUESTION_IDS);
+
+        // Act & Assert
+        create(Map.of("Easy", 2, "Hard", 1))
+                .expectStatus().isCreated()
+                .expectBody(String.class).isEqualTo("Success");
+        Assertions.assertEquals(Map.of("Easy", 2, "Hard", 1), sentSelection().getDifficulties());
+    }
+
+    @Test
+    @DisplayName("Creating a quiz from an unknown category returns 404")
+    void testCreate_whenCategoryIsUnknown_returnsNotFound() {
+        // Arrange
+        givenSelectionRejected(404);
+
+        // Act & Assert
+        create(null)
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Unknown category");
+    }
+
+    @Test
+    @DisplayName("Creating a quiz larger than its category returns 409")
+    void testCreate_whenCategoryIsTooSmall_returnsConflict() {
+        // Arrange
+        givenSelectionRejected(409);
+
+        // Act & Assert
+        create(null)
+                .expectStatus().isEqualTo(409)
+                .expectBody(String.class).isEqualTo("Not enough questions");
+    }
+
+    @Test
+    @DisplayName("Creating a quiz while question-service is unavailable returns 503")
+    void testCreate_whenQuestionServiceIsUnavailable_returnsServiceUnavailable() {
+        // Arrange
+        givenQuestionServiceUnavailable();
+
+        // Act & Assert
+        create(null).expectStatus().isEqualTo(503);
+    }
+
+    private void givenStoredQuiz() {
+        String[] rightAnswers = {"final", "32 bits", "def"};
+        long[] answerKey = new long[QUESTION_IDS.length];
+        for(int i = 0; i < QUESTION_IDS.length; i++)
+            answerKey[i] = QuizAnswerKey.digest(SALT, rightAnswers[i]);
+        givenQuiz(QUESTION_IDS, answerKey, SALT);
+    }
+
+    private WebTestClient.ResponseSpec submit(List<Response> responses) {
+        return client().post().uri("/quiz/submit/{id}", QUIZ_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(responses)
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec create(Map<String, Integer> difficulties) {
+        QuizDto quizDto = new QuizDto();
+        quizDto.setCategory("Java");
+        quizDto.setNumQuestions(3);
+        quizDto.setDifficulties(difficulties);
+        quizDto.setTitle("Java basics");
+        return client().post().uri("/quiz/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(quizDto)
+                .exchange();
+    }
+
+    protected static Response response(int questionId, String answer) {
+        Response response = new Response();
+        response.setId(questionId);
+        response.setResponse(answer);
+        return response;
+    }
+}
@@ -0,0 +1,129 @@
+package com.dmaddi.quizservice.contract;
+
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.model.QuestionSelection;
+import com.dmaddi.quizservice.reactive.ReactiveQuestionClient;
+import com.dmaddi.quizservice.reactive.ReactiveQuizController;
+import com.dmaddi.quizservice.reactive.ReactiveQuizDao;
+import com.dmaddi.quizservice.reactive.ReactiveQuizService;
+import com.dmaddi.quizservice.scoring.QuizAnswerKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.web.reactive.context.AnnotationConfigReactiveWebApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReactiveQuizContractTest extends QuizContractTest {
+
+    private ReactiveQuizDao reactiveQuizDao;
+    private ReactiveQuestionClient questionClient;
+    private AnnotationConfigReactiveWebApplicationContext context;
+    private WebTestClient client;
+
+    @BeforeEach
+    void bindController() {
+        reactiveQuizDao = mock(ReactiveQuizDao.class);
+        questionClient = mock(ReactiveQuestionClient.class);
+        when(reactiveQuizDao.findAnswerKey(anyInt())).thenReturn(Mono.empty());
+        when(reactiveQuizDao.findQuestionIds(anyInt())).thenReturn(Mono.empty());
+        when(reactiveQuizDao.insert(anyString(), any())).thenReturn(Mono.just(QUIZ_ID));
+
+        ReactiveQuizService quizService = new ReactiveQuizService();
+        ReflectionTestUtils.setField(quizService, "reactiveQuizDao", reactiveQuizDao);
+        ReflectionTestUtils.setField(quizService, "questionClient", questionClient);
+        ReflectionTestUtils.setField(quizService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(quizService, "maxWeightBytes", 1_000_000L);
+        ReflectionTestUtils.setField(quizService, "staleMaxWeightBytes", 1_000_000L);
+        ReflectionTestUtils.setField(quizService, "expireAfterAccess", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(quizService, "gzipMinBytes", 1024);
+        ReflectionTestUtils.setField(quizService, "httpMaxAge", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(quizService, "init");
+
+        // registered as a ready-made singleton, so the context does not try to autowire its fields
+        context = new AnnotationConfigReactiveWebApplicationContext();
+        context.getBeanFactory().registerSingleton("reactiveQuizService", quizService);
+        context.register(WebFluxConfig.class, ReactiveQuizController.class);
+        context.refresh();
+        client = WebTestClient.bindToApplicationContext(context).build();
+    }
+
+    @AfterEach
+    void closeContext() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Attempt endpoints answer 501 instead of a misleading 404")
+    void testAttempt_whenReactiveProfile_returnsNotImplemented() {
+        // Act & Assert
+        client.post().uri("/quiz/attempt/{id}", QUIZ_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(response(12, "final")))
+                .exchange()
+                .expectStatus().isEqualTo(501);
+        client.get().uri("/quiz/attempt/events/{id}", 7)
+                .exchange()
+                .expectStatus().isEqualTo(501);
+    }
+
+    @Override
+    protected WebTestClient client() {
+        return client;
+    }
+
+    @Override
+    protected void givenQuiz(int[] questionIds, long[] answerKey, Long salt) {
+        when(reactiveQuizDao.findAnswerKey(QUIZ_ID)).thenReturn(Mono.just(QuizAnswerKey.of(questionIds, answerKey, salt)));
+    }
+
+    @Override
+    protected void givenSelection(int[] questionIds) {
+        when(questionClient.selectQuestions(any())).thenReturn(Mono.just(questionIds));
+    }
+
+    @Override
+    protected void givenSelectionRejected(int status) {
+        when(questionClient.selectQuestions(any())).thenReturn(Mono.error(WebClientResponseException.create(status,
+                "rejected", HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    protected void givenQuestionServiceUnavailable() {
+        when(questionClient.selectQuestions(any())).thenReturn(Mono.error(
+                new QuestionServiceUnavailableException("generate", new TimeoutException("deadline"))));
+    }
+
+    @Override
+    protected QuestionSelection sentSelection() {
+        ArgumentCaptor<QuestionSelection> selection = ArgumentCaptor.forClass(QuestionSelection.class);
+        verify(questionClient).selectQuestions(selection.capture());
+        return selection.getValue();
+    }
+
+    @Configuration
+    @EnableWebFlux
+    static class WebFluxConfig {
+    }
+}
@@ -0,0 +1,102 @@
+package com.dmaddi.quizservice.contract;
+
+import com.dmaddi.quizservice.attempt.AttemptService;
+import com.dmaddi.quizservice.batch.SubmissionBatcher;
+import com.dmaddi.quizservice.cache.QuizQuestionCache;
+import com.dmaddi.quizservice.client.QuestionClient;
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.controller.QuizController;
+import com.dmaddi.quizservice.dao.QuizDao;
+import com.dmaddi.quizservice.model.QuestionSelection;
+import com.dmaddi.quizservice.model.Quiz;
+import com.dmaddi.quizservice.scoring.AnswerKeyBuilder;
+import com.dmaddi.quizservice.service.QuizService;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ServletQuizContractTest extends QuizContractTest {
+
+    private QuizDao quizDao;
+    private QuestionClient questionClient;
+    private WebTestClient client;
+
+    @BeforeEach
+    void bindController() {
+        quizDao = mock(QuizDao.class);
+        questionClient = mock(QuestionClient.class);
+
+        QuizService quizService = new QuizService();
+        ReflectionTestUtils.setField(quizService, "quizDao", quizDao);
+        ReflectionTestUtils.setField(quizService, "questionClient", questionClient);
+        ReflectionTestUtils.setField(quizService, "quizQuestionCache", mock(QuizQuestionCache.class));
+        ReflectionTestUtils.setField(quizService, "submissionBatcher", mock(SubmissionBatcher.class));
+        ReflectionTestUtils.setField(quizService, "answerKeyBuilder", mock(AnswerKeyBuilder.class));
+        ReflectionTestUtils.setField(quizService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(quizService, "batchSubmissions", true);
+        ReflectionTestUtils.setField(quizService, "questionIdsMaxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(quizService, "init");
+
+        QuizController controller = new QuizController();
+        ReflectionTestUtils.setField(controller, "quizService", quizService);
+        ReflectionTestUtils.setField(controller, "attemptService", mock(AttemptService.class));
+        client = MockMvcWebTestClient.bindToController(controller).build();
+    }
+
+    @Override
+    protected WebTestClient client() {
+        return client;
+    }
+
+    @Override
+    protected void givenQuiz(int[] questionIds, long[] answerKey, Long salt) {
+        Quiz quiz = new Quiz();
+        quiz.setId(QUIZ_ID);
+        quiz.setTitle("Java");
+        quiz.setQuestionIds(questionIds);
+        quiz.setAnswerKey(answerKey);
+        quiz.setAnswerKeySalt(salt);
+        when(quizDao.findById(QUIZ_ID)).thenReturn(Optional.of(quiz));
+    }
+
+    @Override
+    protected void givenSelection(int[] questionIds) {
+        when(questionClient.selectQuestions(any())).thenReturn(questionIds);
+    }
+
+    @Override
+    protected void givenSelectionRejected(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "/question/generate", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        feign.Response response = feign.Response.builder().status(status).request(request).headers(Map.of()).build();
+        when(questionClient.selectQuestions(any())).thenThrow(FeignException.errorStatus("selectQuestions", response));
+    }
+
+    @Override
+    protected void givenQuestionServiceUnavailable() {
+        when(questionClient.selectQuestions(any()))
+                .thenThrow(new QuestionServiceUnavailableException("generate", new TimeoutException("deadline")));
+    }
+
+    @Override
+    protected QuestionSelection sentSelection() {
+        ArgumentCaptor<QuestionSelection> selection = ArgumentCaptor.forClass(QuestionSelection.class);
+        verify(questionClient).selectQuestions(selection.capture());
+        return selection.getValue();
+    }
+}
@@ -0,0 +1,167 @@
+package com.dmaddi.quizservice.loadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Drives real HTTP requests against local stub instances of question-service, one of which is
+ * slow (or failing), through the load balancer and lifecycle exactly as the Feign client does.
+ */
+public class LatencyAwareLoadBalancerTest {
+
+    private static final String SERVICE_ID = "QUESTION-SERVICE";
+    private static final int REQUESTS = 200;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private InstanceLoadTracker tracker;
+
+    @BeforeEach
+    void createTracker() {
+        tracker = new InstanceLoadTracker(Duration.ofSeconds(10), 3, Duration.ofSeconds(30), Duration.ofMinutes(2));
+    }
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    @DisplayName("Latency-aware selection cuts p99 when one instance is slow")
+    void testChoose_whenOneInstanceIsSlow_improvesP99OverRoundRobin() throws Exception {
+        // Arrange
+        ServiceInstanceListSupplier instances = ServiceInstanceListSuppliers.from(SERVICE_ID,
+                stub("fast-1", 0, 200), stub("fast-2", 0, 200), stub("slow", 100, 200));
+        ReactorServiceInstanceLoadBalancer roundRobin = new RoundRobinLoadBalancer(provider(instances), SERVICE_ID);
+        ReactorServiceInstanceLoadBalancer latencyAware = new LatencyAwareLoadBalancer(provider(instances), SERVICE_ID, tracker);
+
+        // Act
+        long roundRobinP99 = p99(run(roundRobin, new LatencyTrackingLifecycle(new InstanceLoadTracker(
+                Duration.ofSeconds(10), 3, Duration.ofSeconds(30), Duration.ofMinutes(2)))));
+        long latencyAwareP99 = p99(run(latencyAware, new LatencyTrackingLifecycle(tracker)));
+
+        // Assert
+        Assertions.assertTrue(roundRobinP99 >= Duration.ofMillis(100).toNanos(),
+                "Round robin should keep sending a third of the traffic to the slow instance");
+        Assertions.assertTrue(latencyAwareP99 * 2 < roundRobinP99,
+                "Latency-aware p99 " + latencyAwareP99 / 1_000_000 + "ms should be well below round robin "
+                        + roundRobinP99 / 1_000_000 + "ms");
+    }
+
+    @Test
+    @DisplayName("Instances returning 5xx are ejected")
+    void testChoose_whenInstanceFails_ejectsIt() throws Exception {
+        // Arrange
+        ServiceInstance failing = stub("failing", 0, 500);
+        ServiceInstanceListSupplier instances = ServiceInstanceListSuppliers.from(SERVICE_ID,
+                stub("healthy-1", 0, 200), stub("healthy-2", 0, 200), failing);
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(provider(instances), SERVICE_ID, tracker);
+        LatencyTrackingLifecycle lifecycle = new LatencyTrackingLifecycle(tracker);
+
+        // Act
+        run(loadBalancer, lifecycle);
+        int chosenAfterEjection = 0;
+        for(int i = 0; i < REQUESTS; i++) {
+            if(loadBalancer.choose(new DefaultRequest<>(new RequestDataContext())).block().getServer() == failing)
+                chosenAfterEjection++;
+        }
+
+        // Assert
+        Assertions.assertEquals(0, chosenAfterEjection, "Should not route to an ejected instance");
+    }
+
+    @Test
+    @DisplayName("Every instance ejected falls back to all instances")
+    void testChoose_whenAllInstancesEjected_stillChoosesOne() throws Exception {
+        // Arrange
+        ServiceInstanceListSupplier instances = ServiceInstanceListSuppliers.from(SERVICE_ID,
+                stub("failing-1", 0, 500), stub("failing-2", 0, 500));
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(provider(instances), SERVICE_ID, tracker);
+
+        // Act
+        run(loadBalancer, new LatencyTrackingLifecycle(tracker));
+        Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>(new RequestDataContext())).block();
+
+        // Assert
+        Assertions.assertTrue(response.hasServer(), "Should still choose an instance");
+    }
+
+    private long[] run(ReactorServiceInstanceLoadBalancer loadBalancer, LatencyTrackingLifecycle lifecycle)
+            throws IOException, InterruptedException {
+        long[] latencies = new long[REQUESTS];
+        for(int i = 0; i < REQUESTS; i++) {
+            Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+            Response<ServiceInstance> lbResponse = loadBalancer.choose(request).block();
+            ServiceInstance instance = lbResponse.getServer();
+
+            long start = System.nanoTime();
+            lifecycle.onStartRequest(request, lbResponse);
+            HttpResponse<Void> response = httpClient.send(
+                    HttpRequest.newBuilder(instance.getUri().resolve("/question/generate")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            CompletionContext.Status status = response.statusCode() >= 500
+                    ? CompletionContext.Status.FAILED : CompletionContext.Status.SUCCESS;
+            lifecycle.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                    status, request, lbResponse));
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+
+    private ServiceInstance stub(String instanceId, long delayMillis, int status) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        servers.add(server);
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, "localhost", server.getAddress().getPort(), false);
+    }
+
+    private static ObjectProvider<ServiceInstanceListSupplier> provider(ServiceInstanceListSupplier supplier) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("serviceInstanceListSupplier", supplier);
+        return beanFactory.getBeanProvider(ServiceInstanceListSupplier.class);
+    }
+}
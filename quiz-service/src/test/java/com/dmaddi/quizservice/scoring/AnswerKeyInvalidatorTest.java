@@ -0,0 +1,178 @@
+package com.dmaddi.quizservice.scoring;
+
+import com.dmaddi.quizservice.batch.SubmissionBatcher;
+import com.dmaddi.quizservice.cache.QuizQuestionCache;
+import com.dmaddi.quizservice.client.QuestionClient;
+import com.dmaddi.quizservice.client.QuestionServiceUnavailableException;
+import com.dmaddi.quizservice.dao.QuizDao;
+import com.dmaddi.quizservice.model.QuestionChange;
+import com.dmaddi.quizservice.model.QuestionChanges;
+import com.dmaddi.quizservice.model.Quiz;
+import com.dmaddi.quizservice.model.Response;
+import com.dmaddi.quizservice.service.QuizService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AnswerKeyInvalidatorTest {
+
+    private static final int QUIZ_ID = 1;
+    private static final long SALT = 42L;
+
+    private QuizDao quizDao;
+    private QuestionClient questionClient;
+    private AnswerKeyDao answerKeyDao;
+    private QuizQuestionCache quizQuestionCache;
+    private SubmissionBatcher submissionBatcher;
+    private QuizService quizService;
+    private AnswerKeyInvalidator invalidator;
+
+    @BeforeEach
+    void createInvalidator() {
+        quizDao = mock(QuizDao.class);
+        questionClient = mock(QuestionClient.class);
+        answerKeyDao = mock(AnswerKeyDao.class);
+        quizQuestionCache = mock(QuizQuestionCache.class);
+        submissionBatcher = mock(SubmissionBatcher.class);
+        AnswerKeyBuilder answerKeyBuilder = mock(AnswerKeyBuilder.class);
+        when(answerKeyBuilder.rebuildAsync(anyInt())).thenReturn(new CompletableFuture<>());
+
+        quizService = new QuizService();
+        ReflectionTestUtils.setField(quizService, "quizDao", quizDao);
+        ReflectionTestUtils.setField(quizService, "questionClient", questionClient);
+        ReflectionTestUtils.setField(quizService, "submissionBatcher", submissionBatcher);
+        ReflectionTestUtils.setField(quizService, "answerKeyBuilder", answerKeyBuilder);
+        ReflectionTestUtils.setField(quizService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(quizService, "batchSubmissions", true);
+        ReflectionTestUtils.setField(quizService, "questionIdsMaxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(quizService, "init");
+
+        invalidator = new AnswerKeyInvalidator();
+        ReflectionTestUtils.setField(invalidator, "questionClient", questionClient);
+        ReflectionTestUtils.setField(invalidator, "answerKeyDao", answerKeyDao);
+        ReflectionTestUtils.setField(invalidator, "quizService", quizService);
+        ReflectionTestUtils.setField(invalidator, "quizQuestionCache", quizQuestionCache);
+        ReflectionTestUtils.setField(invalidator, "changesPageSize", 2);
+    }
+
+    @Test
+    @DisplayName("A changed question stops in-process scoring of its quizzes and evicts their payloads")
+    void testPoll_whenQuestionChanged_invalidatesKeyAndPayload() {
+        // Arrange
+        Quiz withKey = quiz(true);
+        when(quizDao.findById(QUIZ_ID)).thenReturn(Optional.of(withKey), Optional.of(quiz(false)));
+        when(submissionBatcher.submit(any())).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(0)));
+        when(questionClient.getChanges(0, 0, 2)).thenReturn(new QuestionChanges(1000, List.of(change(11, 900))));
+        when(answerKeyDao.invalidate(List.of(11))).thenReturn(List.of(QUIZ_ID));
+        ResponseEntity<Integer> before = quizService.score(QUIZ_ID, List.of(response(11, "final"))).join();
+
+        // Act
+        invalidator.poll();
+        ResponseEntity<Integer> after = quizService.score(QUIZ_ID, List.of(response(11, "final"))).join();
+
+        // Assert
+        Assertions.assertEquals(1, before.getBody(), "Should score from the stored key before the change");
+        Assertions.assertEquals(0, after.getBody(), "Should score through question-service after the change");
+        verify(submissionBatcher).submit(any());
+        verify(quizQuestionCache).evict(List.of(QUIZ_ID));
+        verify(answerKeyDao).saveChangePosition(1000);
+    }
+
+    @Test
+    @DisplayName("A full page of changes is followed by the next one, and the first page's position is kept")
+    void testPoll_whenPageIsFull_readsNextPage() {
+        // Arrange
+        when(questionClient.getChanges(0, 0, 2)).thenReturn(new QuestionChanges(1000, List.of(change(3, 900), change(5, 950))));
+        when(questionClient.getChanges(0, 5, 2)).thenReturn(new QuestionChanges(1100, List.of(change(8, 990))));
+        when(answerKeyDao.invalidate(any())).thenReturn(List.of());
+
+        // Act
+        invalidator.poll();
+
+        // Assert
+        verify(answerKeyDao).invalidate(List.of(3, 5));
+        verify(answerKeyDao).invalidate(List.of(8));
+        verify(answerKeyDao).saveChangePosition(1000);
+    }
+
+    @Test
+    @DisplayName("Polling resumes from the stored position and retries it after a failure")
+    void testPoll_whenQuestionServiceFails_keepsPosition() {
+        // Arrange
+        when(answerKeyDao.findChangePosition()).thenReturn(500L);
+        when(questionClient.getChanges(500, 0, 2))
+                .thenThrow(new QuestionServiceUnavailableException("getChanges", new RuntimeException("down")))
+                .thenReturn(new QuestionChanges(2000, List.of()));
+
+        // Act
+        invalidator.poll();
+        invalidator.poll();
+
+        // Assert
+        verify(questionClient, times(2)).getChanges(500, 0, 2);
+        verify(answerKeyDao, never()).saveChangePosition(500);
+        verify(answerKeyDao).saveChangePosition(2000);
+        verify(answerKeyDao, never()).invalidate(any());
+        verify(answerKeyDao, times(1)).findChangePosition();
+    }
+
+    @Test
+    @DisplayName("A change the feed repeats inside its overlap window is applied once, a newer change again")
+    void testPoll_whenFeedRepeatsChange_appliesItOnce() {
+        // Arrange
+        when(questionClient.getChanges(0, 0, 2)).thenReturn(new QuestionChanges(1000, List.of(change(11, 900))));
+        when(questionClient.getChanges(1000, 0, 2)).thenReturn(new QuestionChanges(2000, List.of(change(11, 900))));
+        when(questionClient.getChanges(2000, 0, 2)).thenReturn(new QuestionChanges(3000, List.of(change(11, 2500))));
+        when(answerKeyDao.invalidate(any())).thenReturn(List.of(QUIZ_ID));
+
+        // Act
+        invalidator.poll();
+        invalidator.poll();
+        invalidator.poll();
+
+        // Assert
+        verify(answerKeyDao, times(2)).invalidate(List.of(11));
+        verify(quizQuestionCache, times(2)).evict(List.of(QUIZ_ID));
+        verify(answerKeyDao).saveChangePosition(2000);
+        verify(answerKeyDao).saveChangePosition(3000);
+    }
+
+    private static QuestionChange change(int questionId, long updatedAtMillis) {
+        return new QuestionChange(questionId, Instant.ofEpochMilli(updatedAtMillis));
+    }
+
+    private static Quiz quiz(boolean withKey) {
+        Quiz quiz = new Quiz();
+        quiz.setId(QUIZ_ID);
+        quiz.setQuestionIds(new int[]{11, 12});
+        if(withKey) {
+            quiz.setAnswerKey(new long[]{QuizAnswerKey.digest(SALT, "final"), QuizAnswerKey.digest(SALT, "def")});
+            quiz.setAnswerKeySalt(SALT);
+        }
+        return quiz;
+    }
+
+    private static Response response(int questionId, String answer) {
+        Response response = new Response();
+        response.setId(questionId);
+        response.setResponse(answer);
+        return response;
+    }
+}
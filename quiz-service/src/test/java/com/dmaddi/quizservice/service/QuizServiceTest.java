@@ -0,0 +1,130 @@
+package com.dmaddi.quizservice.service;
+
+import com.dmaddi.quizservice.batch.SubmissionBatcher;
+import com.dmaddi.quizservice.client.QuestionClient;
+import com.dmaddi.quizservice.dao.QuizDao;
+import com.dmaddi.quizservice.model.Quiz;
+import com.dmaddi.quizservice.model.Response;
+import com.dmaddi.quizservice.scoring.AnswerKeyBuilder;
+import com.dmaddi.quizservice.scoring.QuizAnswerKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QuizServiceTest {
+
+    private static final int QUIZ_ID = 1;
+    private static final long SALT = 42L;
+
+    private QuizDao quizDao;
+    private SubmissionBatcher submissionBatcher;
+    private AnswerKeyBuilder answerKeyBuilder;
+    private QuizService quizService;
+
+    @BeforeEach
+    void createService() {
+        quizDao = mock(QuizDao.class);
+        submissionBatcher = mock(SubmissionBatcher.class);
+        answerKeyBuilder = mock(AnswerKeyBuilder.class);
+        quizService = quizService(quizDao, submissionBatcher, answerKeyBuilder);
+    }
+
+    @Test
+    @DisplayName("A quiz with a stored answer key is scored in-process")
+    void testScore_whenAnswerKeyIsStored_scoresLocally() {
+        // Arrange
+        when(quizDao.findById(QUIZ_ID)).thenReturn(Optional.of(quiz(new String[]{"final", "32 bits", "def"})));
+
+        // Act
+        ResponseEntity<Integer> result = quizService.calculateResult(QUIZ_ID,
+                List.of(response(12, "final"), response(10, "def"), response(11, "64 bits"))).join();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.OK, result.getStatusCode());
+        Assertions.assertEquals(2, result.getBody(), "Should count the two right answers");
+        verify(submissionBatcher, never()).submit(any());
+    }
+
+    @Test
+    @DisplayName("A quiz without an answer key is scored by question-service and its key rebuilt")
+    void testScore_whenAnswerKeyIsMissing_scoresRemotelyAndRebuilds() {
+        // Arrange
+        Quiz quiz = quiz(new String[]{"final", "32 bits", "def"});
+        quiz.setAnswerKey(null);
+        when(quizDao.findById(QUIZ_ID)).thenReturn(Optional.of(quiz));
+        when(submissionBatcher.submit(any())).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(3)));
+        when(answerKeyBuilder.rebuildAsync(anyInt())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        ResponseEntity<Integer> result = quizService.calculateResult(QUIZ_ID, List.of(response(12, "final"))).join();
+
+        // Assert
+        Assertions.assertEquals(3, result.getBody(), "Should return question-service's score");
+        verify(answerKeyBuilder).rebuildAsync(QUIZ_ID);
+    }
+
+    @Test
+    @DisplayName("Responses to questions outside the quiz are rejected before scoring")
+    void testCalculateResult_whenQuestionIsNotInQuiz_returnsBadRequest() {
+        // Arrange
+        when(quizDao.findById(QUIZ_ID)).thenReturn(Optional.of(quiz(new String[]{"final", "32 bits", "def"})));
+
+        // Act
+        ResponseEntity<Integer> result = quizService.calculateResult(QUIZ_ID, List.of(response(99, "final"))).join();
+
+        // Assert
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        verify(submissionBatcher, never()).submit(any());
+    }
+
+    /** Quiz of questions 12, 11 and 10 (in that order) with a key stored for the given answers. */
+    private static Quiz quiz(String[] rightAnswers) {
+        int[] questionIds = {12, 11, 10};
+        long[] answerKey = new long[questionIds.length];
+        for(int i = 0; i < questionIds.length; i++)
+            answerKey[i] = QuizAnswerKey.digest(SALT, rightAnswers[i]);
+        Quiz quiz = new Quiz();
+        quiz.setId(QUIZ_ID);
+        quiz.setTitle("Java");
+        quiz.setQuestionIds(questionIds);
+        quiz.setAnswerKey(answerKey);
+        quiz.setAnswerKeySalt(SALT);
+        return quiz;
+    }
+
+    private static Response response(int questionId, String answer) {
+        Response response = new Response();
+        response.setId(questionId);
+        response.setResponse(answer);
+        return response;
+    }
+
+    private static QuizService quizService(QuizDao quizDao, SubmissionBatcher submissionBatcher, AnswerKeyBuilder answerKeyBuilder) {
+        QuizService quizService = new QuizService();
+        ReflectionTestUtils.setField(quizService, "quizDao", quizDao);
+        ReflectionTestUtils.setField(quizService, "questionClient", mock(QuestionClient.class));
+        ReflectionTestUtils.setField(quizService, "submissionBatcher", submissionBatcher);
+        ReflectionTestUtils.setField(quizService, "answerKeyBuilder", answerKeyBuilder);
+        ReflectionTestUtils.setField(quizService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(quizService, "batchSubmissions", true);
+        ReflectionTestUtils.setField(quizService, "questionIdsMaxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(quizService, "init");
+        return quizService;
+    }
+}